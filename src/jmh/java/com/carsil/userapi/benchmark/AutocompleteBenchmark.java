@@ -0,0 +1,47 @@
+package com.carsil.userapi.benchmark;
+
+import com.carsil.userapi.dto.AutocompleteSuggestion;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.search.ProductAutocomplete;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sugerencias de autocompletado (10) sobre 100 000 productos con OP de 6 dígitos y referencia de 5. Con
+ * prefijo vacío o de un dígito hay que bajar varios niveles sin términos antes de llegar al primero.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AutocompleteBenchmark {
+
+    @Param({"", "4", "4521"})
+    public String prefix;
+
+    private ProductAutocomplete autocomplete;
+
+    @Setup
+    public void setup() {
+        autocomplete = new ProductAutocomplete();
+        Random random = new Random(42);
+        for (long id = 1; id <= 100_000; id++) {
+            Product p = new Product();
+            p.setId(id);
+            p.setOp(String.valueOf(100_000 + random.nextInt(900_000)));
+            p.setReference(String.valueOf(10_000 + random.nextInt(90_000)));
+            autocomplete.onProductChanged(ProductChangedEvent.saved(p));
+        }
+    }
+
+    @Benchmark
+    public List<AutocompleteSuggestion> suggest() {
+        return autocomplete.suggest(prefix, 10);
+    }
+}
@@ -0,0 +1,80 @@
+package com.carsil.userapi.benchmark;
+
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.StoppageReason;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsers @JsonCreator de los enums: se ejecutan por cada campo en cada request que los trae. Los
+ * {@code *FromBuffer} son lo que hace el deserializador de {@code EnumCodecModule} sobre el buffer del parser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnumParsingBenchmark {
+
+    // primera etiqueta, última etiqueta, y minúsculas con espacios alrededor
+    @Param({"first", "last", "mixedCase"})
+    public String input;
+
+    private String brand;
+    private String reason;
+    private char[] brandBuffer;
+    private char[] reasonBuffer;
+
+    @Setup
+    public void setup() {
+        switch (input) {
+            case "first" -> { brand = "TENNIS SAS"; reason = "MARQUILLA TALLA"; }
+            case "last" -> { brand = ""; reason = "SESGO"; }
+            default -> { brand = " linea directa "; reason = " faltante de pieza "; }
+        }
+        brandBuffer = brand.toCharArray();
+        reasonBuffer = reason.toCharArray();
+    }
+
+    @Benchmark
+    public Brand brandFromJson() {
+        return Brand.fromJson(brand);
+    }
+
+    @Benchmark
+    public StoppageReason stoppageReasonFromJson() {
+        return StoppageReason.fromJson(reason);
+    }
+
+    @Benchmark
+    public Brand brandFromBuffer() {
+        return Brand.CODEC.find(brandBuffer, 0, brandBuffer.length);
+    }
+
+    @Benchmark
+    public StoppageReason stoppageReasonFromBuffer() {
+        return StoppageReason.CODEC.find(reasonBuffer, 0, reasonBuffer.length);
+    }
+
+    // La versión anterior de Brand.fromJson, para comparar en la misma corrida
+    @Benchmark
+    public Brand brandLinearScan() {
+        String norm = brand.trim();
+        return Arrays.stream(Brand.values())
+                .filter(r -> r.getLabel().equalsIgnoreCase(norm))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid  Brand: " + brand));
+    }
+
+    @Benchmark
+    public StoppageReason stoppageReasonLinearScan() {
+        String norm = reason.trim();
+        return Arrays.stream(StoppageReason.values())
+                .filter(r -> r.getLabel().equalsIgnoreCase(norm))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid Descripción Paro: " + reason));
+    }
+}
@@ -0,0 +1,87 @@
+package com.carsil.userapi.benchmark;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Size;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculos de Product que corren en cada request (serialización y escrituras de avance).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductMathBenchmark {
+
+    private static final Size[] SIZES = {Size.XS, Size.S, Size.M, Size.L, Size.XL, Size.T2, Size.T4, Size.T6};
+
+    private Product product;
+    private Product creating;
+    private MethodHandle validateOnCreate;
+
+    @Setup
+    public void setup() throws Exception {
+        Team team = new Team();
+        team.setNumPersons(12);
+
+        product = new Product();
+        product.setPrice(BigDecimal.valueOf(18_500));
+        product.setQuantity(800);
+        product.setQuantityMade(350);
+        product.setSam(14.5);
+        product.setMissing(450);
+        product.setSamTotal(6525);
+        product.setAssignedDate(LocalDate.of(2025, 1, 10));
+        product.setTeam(team);
+
+        SizeQuantities sizes = new SizeQuantities();
+        for (Size size : SIZES) sizes.set(size, 100);
+        creating = new Product();
+        creating.setQuantity(800);
+        creating.setSizeQuantities(sizes);
+
+        // validateOnCreate es el @PrePersist privado; se invoca igual que lo hace Hibernate
+        validateOnCreate = MethodHandles.privateLookupIn(Product.class, MethodHandles.lookup())
+                .findVirtual(Product.class, "validateOnCreate", MethodType.methodType(void.class));
+    }
+
+    @Benchmark
+    public BigDecimal loadDays() {
+        return product.getLoadDays();
+    }
+
+    @Benchmark
+    public BigDecimal totalPrice() {
+        return product.getTotalPrice();
+    }
+
+    @Benchmark
+    public Double deliveryPercentage() {
+        return product.getDeliveryPercentage();
+    }
+
+    // Avanza y retrocede una unidad para que el estado no llegue al límite entre iteraciones
+    @Benchmark
+    public Integer addMade() {
+        product.addMade(1);
+        product.addMade(-1);
+        return product.getSamTotal();
+    }
+
+    @Benchmark
+    public Integer validateOnCreate() throws Throwable {
+        validateOnCreate.invokeExact(creating);
+        return creating.getQuantity();
+    }
+}
@@ -0,0 +1,62 @@
+package com.carsil.userapi.benchmark;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.service.ProductPatcher;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplicar el cuerpo de un PATCH /api/products/{id} ya leído como mapa: {@code ObjectMapper.updateValue}
+ * (configurado como el de Spring Boot) contra la tabla de setters de {@link ProductPatcher}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductPatchBenchmark {
+
+    // un campo (avance del día) o los seis que manda la pantalla de edición
+    @Param({"one", "six"})
+    public String payload;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private Map<String, Object> updates;
+    private Product product;
+
+    @Setup
+    public void setup() {
+        updates = new HashMap<>();
+        updates.put("sam", 2.5);
+        if (payload.equals("six")) {
+            updates.put("price", 15000.5);
+            updates.put("plantEntryDate", "2025-03-04");
+            updates.put("description", "Camiseta básica");
+            updates.put("brand", "LINEA DIRECTA");
+            updates.put("stoppageReason", "FALTANTE DE PIEZA");
+        }
+        product = new Product();
+    }
+
+    @Benchmark
+    public Product objectMapperUpdateValue() throws Exception {
+        return objectMapper.updateValue(product, updates);
+    }
+
+    @Benchmark
+    public Product productPatcher() {
+        ProductPatcher.apply(product, updates);
+        return product;
+    }
+}
@@ -0,0 +1,62 @@
+package com.carsil.userapi.benchmark;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.Team;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga total de un módulo según cuántos productos tiene. {@code totaLoadDays} lee el agregado
+ * persistido; {@code sumOfProductLoadDays} es el cálculo que reemplazó (la suma de los {@code getLoadDays()}
+ * de cada producto, redondeada a 2 decimales), como referencia.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TeamLoadBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int products;
+
+    private Team team;
+
+    @Setup
+    public void setup() {
+        team = new Team();
+        team.setNumPersons(12);
+        List<Product> list = new ArrayList<>(products);
+        long sum = 0;
+        for (int i = 0; i < products; i++) {
+            Product p = new Product();
+            p.setSamTotal(100 + i % 500);
+            p.setTeam(team);
+            sum += p.getSamTotal();
+            list.add(p);
+        }
+        team.setProducts(list);
+        team.setSamTotalSum(sum);
+    }
+
+    @Benchmark
+    public BigDecimal totaLoadDays() {
+        return team.getTotaLoadDays();
+    }
+
+    @Benchmark
+    public BigDecimal sumOfProductLoadDays() {
+        return team.getProducts().stream()
+                .map(Product::getLoadDays)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,78 @@
+package com.carsil.userapi.loadtest;
+
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.enums.Size;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Carga un dataset parecido al de planta directamente por JDBC (por lotes), sin pasar por JPA:
+ * módulos con 8–20 personas y productos con 4 tallas, repartidos entre los módulos.
+ * Supone una base vacía: los ids quedan 1..teams y 1..products.
+ */
+class DatasetSeeder {
+
+    static final Size[] SIZES = {Size.S, Size.M, Size.L, Size.XL};
+    static final int FIRST_OP = 100_000;
+
+    private static final int BATCH = 1000;
+    private static final String[] BRANDS = {"TENNIS", "ELEDE"};
+    private static final String[] STATUSES = {"PROCESO", "ASIGNADO", "CONFECCION"};
+    private static final String[] GARMENTS = {"Camiseta", "Jean", "Chaqueta", "Blusa", "Bermuda", "Vestido"};
+
+    private final JdbcTemplate jdbc;
+    private final Random random = new Random(42);
+
+    DatasetSeeder(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    void seed(int teams, int products) {
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int t = 1; t <= teams; t++) {
+            rows.add(new Object[]{"Modulo " + t, 8 + random.nextInt(13), "Linea " + (1 + t % 12)});
+            if (rows.size() == BATCH || t == teams) {
+                jdbc.batchUpdate("INSERT INTO carsil_team (name, num_persons, description) VALUES (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        for (int i = 1; i <= products; i++) {
+            int perSize = 25 * (1 + random.nextInt(20));
+            int quantity = perSize * SIZES.length;
+            double sam = 5 + random.nextInt(200) / 10.0;
+            LocalDate assigned = base.plusDays(random.nextInt(700));
+            SizeQuantities sizes = new SizeQuantities();
+            for (Size size : SIZES) sizes.set(size, perSize);
+            rows.add(new Object[]{
+                    BigDecimal.valueOf(15_000 + random.nextInt(80) * 1000L), quantity,
+                    Date.valueOf(assigned), Date.valueOf(assigned.plusDays(3 + random.nextInt(20))),
+                    String.valueOf(10_000 + random.nextInt(90_000)), BRANDS[random.nextInt(BRANDS.length)],
+                    String.valueOf(FIRST_OP + i), String.valueOf(2024 + random.nextInt(3)), "T" + random.nextInt(10),
+                    GARMENTS[random.nextInt(GARMENTS.length)] + " ref " + i, STATUSES[random.nextInt(STATUSES.length)],
+                    0, quantity, sam, (int) Math.round(quantity * sam), 1 + random.nextInt(teams), sizes.pack()
+            });
+
+            if (rows.size() == BATCH || i == products) {
+                jdbc.batchUpdate("""
+                        INSERT INTO carsil_product (price, quantity, assigned_date, plant_entry_date, reference, brand,
+                            op, campaign, type, description, status, quantity_made, missing, sam, sam_total, team_id, size_units)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """, rows);
+                rows.clear();
+            }
+        }
+
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM carsil_product", Long.class);
+        if (maxId == null || maxId != products) {
+            throw new IllegalStateException("Expected an empty database: product ids do not start at 1 (max id " + maxId + ")");
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.carsil.userapi.loadtest;
+
+import com.carsil.userapi.UserApiApplication;
+import com.carsil.userapi.search.ProductAutocomplete;
+import com.carsil.userapi.search.ProductSearchIndex;
+import com.carsil.userapi.service.TeamService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Prueba de carga de punta a punta: levanta la aplicación sobre H2 en memoria, siembra el dataset y
+ * lanza N clientes HTTP concurrentes (lazo cerrado) con una mezcla de endpoints. Al final imprime
+ * p50/p99 y peticiones por segundo por endpoint y escribe target/loadtest-report.md.
+ * <p>
+ * mvn -Pbenchmarks test-compile exec:exec@loadtest -Dloadtest.args="--products=200000 --duration=60"
+ * <p>
+ * Cualquier otro argumento --clave=valor se pasa a Spring (p. ej. --spring.threads.virtual.enabled=true).
+ * Con --db-latency-ms=N cada sentencia JDBC espera N ms con la conexión tomada, como contra una base remota,
+ * y --mix=TEAM,PROGRESS_TICK limita la mezcla a esos endpoints (con sus mismos pesos).
+ */
+public class LoadTest {
+
+    private static final String USER = "loadtest";
+    private static final String PASSWORD = "loadtest123";
+
+    // Mezcla de la planta: sobre todo avances y consultas puntuales desde las tabletas
+    enum Endpoint {
+        PROGRESS_TICK(35, "PATCH /api/products/{id}/progress"),
+        GET_BY_ID(20, "GET /api/products/{id}"),
+        GET_BY_OP(5, "GET /api/products/by-op/{op}"),
+        SEARCH(5, "GET /api/products/search"),
+        SEARCH_PAGE(8, "GET /api/products/search/page"),
+        AUTOCOMPLETE(5, "GET /api/products/autocomplete"),
+        LIST_PAGE(10, "GET /api/products/page"),
+        PATCH(5, "PATCH /api/products/{id}"),
+        TEAM(6, "GET /api/teams/{id}"),
+        LOGIN(1, "POST /api/auth/login");
+
+        final int weight;
+        final String label;
+
+        Endpoint(int weight, String label) {
+            this.weight = weight;
+            this.label = label;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "teams", "2000", "products", "200000", "concurrency", "16", "warmup", "15", "duration", "60",
+                "db-latency-ms", "0", "mix", "ALL"));
+        List<String> springArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        for (String arg : args) {
+            String key = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : null;
+            if (key != null && options.containsKey(key)) {
+                options.put(key, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                springArgs.add(arg);
+            }
+        }
+        int teams = Integer.parseInt(options.get("teams"));
+        int products = Integer.parseInt(options.get("products"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.get("warmup")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.get("duration")));
+        long dbLatencyMillis = Long.parseLong(options.get("db-latency-ms"));
+        List<Endpoint> mix = "ALL".equals(options.get("mix")) ? List.of(Endpoint.values())
+                : Arrays.stream(options.get("mix").split(",")).map(String::trim).map(Endpoint::valueOf).toList();
+
+        SpringApplication app = new SpringApplication(UserApiApplication.class);
+        if (dbLatencyMillis > 0) {
+            app.addInitializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? new SimulatedLatencyDataSource(ds, dbLatencyMillis) : bean;
+                }
+            }));
+        }
+        ConfigurableApplicationContext ctx = app.run(springArgs.toArray(String[]::new));
+        try {
+            int port = ((ServletWebServerApplicationContext) ctx).getWebServer().getPort();
+
+            long seedStart = System.nanoTime();
+            new DatasetSeeder(ctx.getBean(JdbcTemplate.class)).seed(teams, products);
+            // La siembra va por JDBC: los agregados e índices en memoria se reconstruyen a mano
+            ctx.getBean(TeamService.class).backfillLoadAggregates();
+            ctx.getBean(ProductSearchIndex.class).rebuild();
+            ctx.getBean(ProductAutocomplete.class).load();
+            System.out.printf("Seeded %d teams and %d products in %d s%n",
+                    teams, products, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - seedStart));
+            if (ctx.getBean(DataSource.class) instanceof SimulatedLatencyDataSource latency) latency.activate();
+
+            LoadTest test = new LoadTest("http://localhost:" + port, teams, products, mix);
+            test.createUser();
+            Map<Endpoint, Samples> results = test.run(concurrency, warmup, duration);
+            String report = report(results, duration, concurrency, teams, products, dbLatencyMillis, springArgs);
+            System.out.println(report);
+            Path out = Path.of("target", "loadtest-report.md");
+            Files.createDirectories(out.getParent());
+            Files.writeString(out, report);
+        } finally {
+            ctx.close();
+        }
+    }
+
+    private final String baseUrl;
+    private final int teams;
+    private final int products;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Endpoint> mix;
+    private final int totalWeight;
+
+    LoadTest(String baseUrl, int teams, int products, List<Endpoint> mix) {
+        this.baseUrl = baseUrl;
+        this.teams = teams;
+        this.products = products;
+        this.mix = mix;
+        this.totalWeight = mix.stream().mapToInt(e -> e.weight).sum();
+    }
+
+    void createUser() throws IOException, InterruptedException {
+        HttpResponse<Void> res = client.send(json("/api/users", "POST",
+                "{\"name\":\"" + USER + "\",\"email\":\"loadtest@carsil.test\",\"password\":\"" + PASSWORD + "\"}"),
+                HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() >= 300) throw new IllegalStateException("Could not create load-test user: " + res.statusCode());
+    }
+
+    Map<Endpoint, Samples> run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long until = measureFrom + duration.toNanos();
+        // Clientes en hilos virtuales: cientos de clientes no le quitan CPU al servidor en cambios de contexto
+        ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor();
+        List<Future<Map<Endpoint, Samples>>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(pool.submit(() -> worker(measureFrom, until)));
+        }
+        Map<Endpoint, Samples> merged = new EnumMap<>(Endpoint.class);
+        for (Future<Map<Endpoint, Samples>> w : workers) {
+            w.get().forEach((e, s) -> merged.computeIfAbsent(e, k -> new Samples()).addAll(s));
+        }
+        pool.shutdown();
+        return merged;
+    }
+
+    private Map<Endpoint, Samples> worker(long measureFrom, long until) {
+        Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < until) {
+            Endpoint endpoint = pick(random.nextInt(totalWeight));
+            boolean ok;
+            try {
+                HttpResponse<Void> res = client.send(request(endpoint, random), HttpResponse.BodyHandlers.discarding());
+                ok = res.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long elapsed = System.nanoTime() - now;
+            if (now >= measureFrom) samples.computeIfAbsent(endpoint, k -> new Samples()).add(elapsed, ok);
+        }
+        return samples;
+    }
+
+    private Endpoint pick(int roll) {
+        for (Endpoint e : mix) {
+            roll -= e.weight;
+            if (roll < 0) return e;
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest request(Endpoint endpoint, ThreadLocalRandom random) {
+        long id = 1 + random.nextInt(products);
+        return switch (endpoint) {
+            case PROGRESS_TICK -> json("/api/products/" + id + "/progress?delta=1", "PATCH", null);
+            case GET_BY_ID -> get("/api/products/" + id);
+            case GET_BY_OP -> get("/api/products/by-op/" + (DatasetSeeder.FIRST_OP + id));
+            // 4 dígitos de una OP: cientos de coincidencias, como cuando se busca un lote
+            case SEARCH -> get("/api/products/search?q=" + String.valueOf(DatasetSeeder.FIRST_OP + id).substring(0, 5));
+            case SEARCH_PAGE -> get("/api/products/search/page?size=20&q="
+                    + String.valueOf(DatasetSeeder.FIRST_OP + id).substring(0, 4));
+            case AUTOCOMPLETE -> get("/api/products/autocomplete?limit=10&prefix="
+                    + String.valueOf(DatasetSeeder.FIRST_OP + id).substring(0, 4));
+            case LIST_PAGE -> get("/api/products/page?size=100&after=" + random.nextInt(products));
+            case PATCH -> json("/api/products/" + id, "PATCH", "{\"description\":\"Lote " + random.nextInt(1000) + "\"}");
+            case TEAM -> get("/api/teams/" + (1 + random.nextInt(teams)));
+            case LOGIN -> json("/api/auth/login", "POST",
+                    "{\"userName\":\"" + USER + "\",\"password\":\"" + PASSWORD + "\"}");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    static String report(Map<Endpoint, Samples> results, Duration duration, int concurrency, int teams, int products,
+                         long dbLatencyMillis, List<String> springArgs) {
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Load test\n\n")
+                .append(String.format("%d teams, %d products, %d clients, %.0f s measured (JDK %s, %d CPUs)%n",
+                        teams, products, concurrency, seconds, Runtime.version(), Runtime.getRuntime().availableProcessors()))
+                .append(String.format("Simulated JDBC latency: %d ms per statement%n", dbLatencyMillis))
+                .append("Spring args: ").append(String.join(" ", springArgs)).append("\n\n")
+                .append("| Endpoint | Requests | Errors | req/s | p50 ms | p99 ms | max ms |\n")
+                .append("|---|---:|---:|---:|---:|---:|---:|\n");
+        Samples all = new Samples();
+        for (Endpoint e : Endpoint.values()) {
+            Samples s = results.get(e);
+            if (s == null) continue;
+            all.addAll(s);
+            row(sb, e.label, s, seconds);
+        }
+        row(sb, "**Total**", all, seconds);
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String label, Samples s, double seconds) {
+        long[] sorted = s.sorted();
+        sb.append(String.format(Locale.ROOT, "| %s | %d | %d | %.1f | %.2f | %.2f | %.2f |%n", label, sorted.length,
+                s.errors, sorted.length / seconds, ms(percentile(sorted, 0.50)), ms(percentile(sorted, 0.99)),
+                ms(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.ceil(p * sorted.length) - 1];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    // Latencias en ns de un endpoint; cada worker tiene las suyas y se juntan al final
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private int errors;
+
+        void add(long elapsed, boolean ok) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = elapsed;
+            if (!ok) errors++;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) add(other.nanos[i], true);
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
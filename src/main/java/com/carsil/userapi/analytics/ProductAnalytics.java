@@ -0,0 +1,188 @@
+package com.carsil.userapi.analytics;
+
+import com.carsil.userapi.dto.AnalyticsPoint;
+import com.carsil.userapi.dto.SnapshotInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Series de tiempo sobre las fotos de {@link SnapshotStore}: por cada periodo (día, semana o mes) toma la
+ * última foto del periodo y suma sus columnas agrupando por módulo, marca, campaña y/o estado. Nunca
+ * consulta la base.
+ */
+@Service
+public class ProductAnalytics {
+
+    // Combinaciones de grupos posibles (producto de los tamaños de los diccionarios) que se acumulan en arreglos
+    static final int MAX_GROUPS = 1 << 20;
+
+    @Autowired
+    private SnapshotStore snapshotStore;
+
+    public enum Dimension {
+        TEAM, BRAND, CAMPAIGN, STATUS;
+
+        public static Dimension of(String value) {
+            for (Dimension d : values()) {
+                if (d.name().equalsIgnoreCase(value.trim())) return d;
+            }
+            throw new IllegalArgumentException("Unsupported groupBy: " + value + " (team, brand, campaign, status)");
+        }
+
+        private List<String> dictionary(ProductSnapshot s) {
+            return switch (this) {
+                case TEAM -> s.teams();
+                case BRAND -> s.brands();
+                case CAMPAIGN -> s.campaigns();
+                case STATUS -> s.statuses();
+            };
+        }
+
+        private int code(ProductSnapshot s, int row) {
+            return switch (this) {
+                case TEAM -> s.team(row);
+                case BRAND -> s.brand(row);
+                case CAMPAIGN -> s.campaign(row);
+                case STATUS -> s.status(row);
+            };
+        }
+    }
+
+    public enum Interval {
+        DAY, WEEK, MONTH;
+
+        public static Interval of(String value) {
+            for (Interval i : values()) {
+                if (i.name().equalsIgnoreCase(value.trim())) return i;
+            }
+            throw new IllegalArgumentException("Unsupported interval: " + value + " (day, week, month)");
+        }
+
+        LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+    }
+
+    public List<SnapshotInfo> snapshots() {
+        return snapshotStore.all().stream()
+                .map(s -> new SnapshotInfo(s.getTakenAt(), s.getRows(), s.getSizeBytes()))
+                .toList();
+    }
+
+    /**
+     * from/to (inclusive) delimitan las fechas en que se tomaron las fotos; entryFrom/entryTo, opcionales,
+     * filtran los productos por fecha de ingreso a planta. Sin groupBy cada periodo trae un solo total.
+     */
+    public List<AnalyticsPoint> series(LocalDate from, LocalDate to, Interval interval, List<Dimension> groupBy,
+                                       LocalDate entryFrom, LocalDate entryTo) {
+        if (from.isAfter(to)) throw new IllegalArgumentException("from must not be after to");
+        if (new HashSet<>(groupBy).size() != groupBy.size()) throw new IllegalArgumentException("Repeated groupBy dimension");
+
+        ZoneId zone = snapshotStore.zone();
+        Instant start = from.atStartOfDay(zone).toInstant();
+        Instant end = to.plusDays(1).atStartOfDay(zone).toInstant();
+        // Las métricas son estado (no eventos): sumar dos fotos del mismo periodo contaría doble
+        Map<LocalDate, ProductSnapshot> lastOfPeriod = new TreeMap<>();
+        for (ProductSnapshot s : snapshotStore.between(start, end).values()) {
+            lastOfPeriod.put(interval.start(LocalDate.ofInstant(s.getTakenAt(), zone)), s);
+        }
+
+        int minEntry = entryFrom == null ? Integer.MIN_VALUE + 1 : Math.toIntExact(entryFrom.toEpochDay());
+        int maxEntry = entryTo == null ? Integer.MAX_VALUE : Math.toIntExact(entryTo.toEpochDay());
+        boolean filterEntry = entryFrom != null || entryTo != null;
+
+        List<AnalyticsPoint> points = new ArrayList<>();
+        lastOfPeriod.forEach((period, snapshot) ->
+                points.addAll(aggregate(period, snapshot, groupBy, filterEntry, minEntry, maxEntry)));
+        return points;
+    }
+
+    private static List<AnalyticsPoint> aggregate(LocalDate period, ProductSnapshot s, List<Dimension> groupBy,
+                                                  boolean filterEntry, int minEntry, int maxEntry) {
+        // Índice mixto: cada dimensión aporta (tamaño del diccionario + 1) valores, el +1 es el nulo
+        int[] radix = new int[groupBy.size()];
+        long groups = 1;
+        for (int d = 0; d < radix.length; d++) {
+            radix[d] = groupBy.get(d).dictionary(s).size() + 1;
+            groups *= radix[d];
+        }
+        if (groups > MAX_GROUPS) throw new IllegalArgumentException("Too many groups (" + groups + "), use fewer groupBy dimensions");
+
+        // slotOf[combinación] = 1 + posición en totals; totals = [products, quantity, quantityMade, missing, samTotal] por grupo
+        int[] slotOf = new int[(int) groups];
+        long[] totals = new long[5 * 16];
+        int[] comboOfSlot = new int[16];
+        int slots = 0;
+
+        for (int row = 0; row < s.getRows(); row++) {
+            if (filterEntry) {
+                int entry = s.plantEntryDate(row);
+                if (entry == ProductSnapshot.NULL || entry < minEntry || entry > maxEntry) continue;
+            }
+            int combo = 0;
+            for (int d = 0; d < radix.length; d++) combo = combo * radix[d] + groupBy.get(d).code(s, row) + 1;
+            int slot = slotOf[combo] - 1;
+            if (slot < 0) {
+                slot = slots++;
+                slotOf[combo] = slots;
+                if (slots > comboOfSlot.length) {
+                    comboOfSlot = Arrays.copyOf(comboOfSlot, comboOfSlot.length * 2);
+                    totals = Arrays.copyOf(totals, totals.length * 2);
+                }
+                comboOfSlot[slot] = combo;
+            }
+            int t = slot * 5;
+            totals[t]++;
+            totals[t + 1] += value(s.quantity(row));
+            totals[t + 2] += value(s.quantityMade(row));
+            totals[t + 3] += value(s.missing(row));
+            totals[t + 4] += value(s.samTotal(row));
+        }
+
+        List<AnalyticsPoint> points = new ArrayList<>(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            int t = slot * 5;
+            points.add(AnalyticsPoint.builder()
+                    .period(period)
+                    .takenAt(s.getTakenAt())
+                    .group(labels(s, groupBy, radix, comboOfSlot[slot]))
+                    .products(totals[t])
+                    .quantity(totals[t + 1])
+                    .quantityMade(totals[t + 2])
+                    .missing(totals[t + 3])
+                    .samTotal(totals[t + 4])
+                    .madePct(totals[t + 1] == 0 ? 0 : Math.round(totals[t + 2] * 1000.0 / totals[t + 1]) / 10.0)
+                    .build());
+        }
+        points.sort(Comparator.comparing(p -> String.join("\u0000", p.getGroup().values().stream()
+                .map(v -> v == null ? "" : v).toList())));
+        return points;
+    }
+
+    private static Map<String, String> labels(ProductSnapshot s, List<Dimension> groupBy, int[] radix, int combo) {
+        String[] values = new String[radix.length];
+        for (int d = radix.length - 1; d >= 0; d--) {
+            int code = combo % radix[d] - 1;
+            combo /= radix[d];
+            values[d] = code < 0 ? null : groupBy.get(d).dictionary(s).get(code);
+        }
+        Map<String, String> group = new LinkedHashMap<>();
+        for (int d = 0; d < values.length; d++) group.put(groupBy.get(d).name().toLowerCase(Locale.ROOT), values[d]);
+        return group;
+    }
+
+    private static long value(int column) {
+        return column == ProductSnapshot.NULL ? 0 : column;
+    }
+}
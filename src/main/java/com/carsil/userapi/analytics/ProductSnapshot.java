@@ -0,0 +1,260 @@
+package com.carsil.userapi.analytics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Foto de las métricas de todos los productos en un instante, guardada por columnas en un archivo que
+ * se lee con mmap: cada métrica es un arreglo contiguo de int y las categorías (módulo, campaña, marca,
+ * estado) son índices a diccionarios del encabezado. Recorrer una columna no crea objetos por fila.
+ *
+ * <pre>
+ * encabezado: magic, versión, takenAt (epoch ms), filas, diccionarios (módulos con id, campañas, marcas, estados)
+ * columnas:   long productId | int team, campaign, quantity, quantityMade, missing, samTotal,
+ *             assignedDate, plantEntryDate (epoch day) | byte brand, status
+ * </pre>
+ * Los int nulos se guardan como {@link #NULL}; los índices de diccionario nulos como -1.
+ */
+public final class ProductSnapshot {
+
+    public static final int NULL = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final Instant takenAt;
+    private final int rows;
+    private final long sizeBytes;
+    private final long[] teamIds;
+    private final List<String> teams;
+    private final List<String> campaigns;
+    private final List<String> brands;
+    private final List<String> statuses;
+
+    private final LongBuffer productId;
+    private final IntBuffer team, campaign, quantity, quantityMade, missing, samTotal, assignedDate, plantEntryDate;
+    private final ByteBuffer brand, status;
+
+    private ProductSnapshot(Path file, MappedByteBuffer buf) {
+        this.file = file;
+        this.sizeBytes = buf.capacity();
+        if (buf.getInt() != MAGIC) throw new IllegalArgumentException("Not a product snapshot: " + file);
+        int version = buf.getInt();
+        if (version != VERSION) throw new IllegalArgumentException("Unsupported snapshot version " + version + ": " + file);
+        this.takenAt = Instant.ofEpochMilli(buf.getLong());
+        this.rows = buf.getInt();
+
+        int teamCount = buf.getInt();
+        this.teamIds = new long[teamCount];
+        List<String> teamNames = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teamIds[i] = buf.getLong();
+            teamNames.add(readString(buf));
+        }
+        this.teams = List.copyOf(teamNames);
+        this.campaigns = readStrings(buf);
+        this.brands = readStrings(buf);
+        this.statuses = readStrings(buf);
+        align(buf);
+
+        this.productId = slice(buf, 8L * rows).asLongBuffer();
+        this.team = ints(buf);
+        this.campaign = ints(buf);
+        this.quantity = ints(buf);
+        this.quantityMade = ints(buf);
+        this.missing = ints(buf);
+        this.samTotal = ints(buf);
+        this.assignedDate = ints(buf);
+        this.plantEntryDate = ints(buf);
+        this.brand = slice(buf, rows);
+        this.status = slice(buf, rows);
+    }
+
+    public static ProductSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // El mapeo sigue vivo después de cerrar el canal
+            return new ProductSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public Path getFile() { return file; }
+    public Instant getTakenAt() { return takenAt; }
+    public int getRows() { return rows; }
+    public long getSizeBytes() { return sizeBytes; }
+
+    public long productId(int row) { return productId.get(row); }
+    public int team(int row) { return team.get(row); }
+    public int campaign(int row) { return campaign.get(row); }
+    public int brand(int row) { return brand.get(row); }
+    public int status(int row) { return status.get(row); }
+    public int quantity(int row) { return quantity.get(row); }
+    public int quantityMade(int row) { return quantityMade.get(row); }
+    public int missing(int row) { return missing.get(row); }
+    public int samTotal(int row) { return samTotal.get(row); }
+    public int assignedDate(int row) { return assignedDate.get(row); }
+    public int plantEntryDate(int row) { return plantEntryDate.get(row); }
+
+    public long teamId(int index) { return teamIds[index]; }
+    public List<String> teams() { return teams; }
+    public List<String> campaigns() { return campaigns; }
+    public List<String> brands() { return brands; }
+    public List<String> statuses() { return statuses; }
+
+    private IntBuffer ints(ByteBuffer buf) {
+        return slice(buf, 4L * rows).asIntBuffer();
+    }
+
+    private static ByteBuffer slice(ByteBuffer buf, long length) {
+        ByteBuffer column = buf.slice(buf.position(), Math.toIntExact(length));
+        buf.position(buf.position() + (int) length);
+        return column;
+    }
+
+    private static List<String> readStrings(ByteBuffer buf) {
+        int n = buf.getInt();
+        List<String> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add(readString(buf));
+        return List.copyOf(values);
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void align(ByteBuffer buf) {
+        buf.position((buf.position() + 7) & ~7);
+    }
+
+    /** Acumula las filas en arreglos primitivos y las escribe de una vez con {@link #write}. */
+    public static final class Builder {
+        private final Instant takenAt;
+        private final Map<Long, Integer> teamIndex = new LinkedHashMap<>();
+        private final List<String> teamNames = new ArrayList<>();
+        private final Map<String, Integer> campaignIndex = new LinkedHashMap<>();
+        private final Map<String, Integer> brandIndex = new LinkedHashMap<>();
+        private final Map<String, Integer> statusIndex = new LinkedHashMap<>();
+
+        private long[] productIds = new long[1024];
+        private int[][] ints = new int[8][1024];
+        private byte[][] bytes = new byte[2][1024];
+        private int rows;
+
+        public Builder(Instant takenAt) {
+            this.takenAt = takenAt;
+        }
+
+        public Instant takenAt() {
+            return takenAt;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public void add(long productId, Long teamId, String teamName, String campaign, String brand, String status,
+                        Integer quantity, Integer quantityMade, Integer missing, Integer samTotal,
+                        LocalDate assignedDate, LocalDate plantEntryDate) {
+            if (rows == productIds.length) grow();
+            productIds[rows] = productId;
+            ints[0][rows] = teamId == null ? -1 : teamIndex.computeIfAbsent(teamId, id -> {
+                teamNames.add(teamName == null ? "" : teamName);
+                return teamNames.size() - 1;
+            });
+            ints[1][rows] = index(campaignIndex, campaign);
+            ints[2][rows] = orNull(quantity);
+            ints[3][rows] = orNull(quantityMade);
+            ints[4][rows] = orNull(missing);
+            ints[5][rows] = orNull(samTotal);
+            ints[6][rows] = assignedDate == null ? NULL : Math.toIntExact(assignedDate.toEpochDay());
+            ints[7][rows] = plantEntryDate == null ? NULL : Math.toIntExact(plantEntryDate.toEpochDay());
+            // Marca y estado son enums de pocos valores: el índice cabe en un byte
+            bytes[0][rows] = (byte) index(brandIndex, brand);
+            bytes[1][rows] = (byte) index(statusIndex, status);
+            rows++;
+        }
+
+        public void write(Path target) throws IOException {
+            byte[][] teamBytes = teamNames.stream().map(s -> s.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+            byte[][] campaignBytes = utf8(campaignIndex.keySet());
+            byte[][] brandBytes = utf8(brandIndex.keySet());
+            byte[][] statusBytes = utf8(statusIndex.keySet());
+
+            long header = 4 + 4 + 8 + 4 + 4 + 8L * teamBytes.length + stringsSize(teamBytes)
+                    + 4 + stringsSize(campaignBytes) + 4 + stringsSize(brandBytes) + 4 + stringsSize(statusBytes);
+            header = (header + 7) & ~7;
+            long size = header + 8L * rows + 4L * ints.length * rows + (long) bytes.length * rows;
+
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buf.putInt(MAGIC).putInt(VERSION).putLong(takenAt.toEpochMilli()).putInt(rows);
+                buf.putInt(teamBytes.length);
+                int t = 0;
+                for (long teamId : teamIndex.keySet()) {
+                    buf.putLong(teamId);
+                    putString(buf, teamBytes[t++]);
+                }
+                putStrings(buf, campaignBytes);
+                putStrings(buf, brandBytes);
+                putStrings(buf, statusBytes);
+                buf.position((int) header);
+
+                buf.asLongBuffer().put(productIds, 0, rows);
+                buf.position(buf.position() + 8 * rows);
+                for (int[] column : ints) {
+                    buf.asIntBuffer().put(column, 0, rows);
+                    buf.position(buf.position() + 4 * rows);
+                }
+                for (byte[] column : bytes) buf.put(column, 0, rows);
+                buf.force();
+            }
+        }
+
+        private void grow() {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            for (int i = 0; i < ints.length; i++) ints[i] = Arrays.copyOf(ints[i], capacity);
+            for (int i = 0; i < bytes.length; i++) bytes[i] = Arrays.copyOf(bytes[i], capacity);
+        }
+
+        private static int index(Map<String, Integer> dictionary, String value) {
+            return value == null ? -1 : dictionary.computeIfAbsent(value, v -> dictionary.size());
+        }
+
+        private static int orNull(Integer value) {
+            return value == null ? NULL : value;
+        }
+
+        private static byte[][] utf8(Collection<String> values) {
+            return values.stream().map(s -> s.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        }
+
+        private static long stringsSize(byte[][] values) {
+            long size = 0;
+            for (byte[] value : values) size += 4 + value.length;
+            return size;
+        }
+
+        private static void putStrings(ByteBuffer buf, byte[][] values) {
+            buf.putInt(values.length);
+            for (byte[] value : values) putString(buf, value);
+        }
+
+        private static void putString(ByteBuffer buf, byte[] value) {
+            buf.putInt(value.length).put(value);
+        }
+    }
+}
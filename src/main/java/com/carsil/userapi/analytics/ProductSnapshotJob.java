@@ -0,0 +1,80 @@
+package com.carsil.userapi.analytics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Toma la foto periódica de los productos: es la única lectura de las tablas transaccionales del
+ * historial; las consultas de {@link ProductAnalytics} solo recorren los archivos de {@link SnapshotStore}.
+ */
+@Slf4j
+@Component
+public class ProductSnapshotJob {
+
+    private static final String SELECT = """
+            SELECT p.id, p.team_id, t.name AS team_name, p.campaign, p.brand, p.status, p.quantity,
+                   p.quantity_made, p.missing, p.sam_total, p.assigned_date, p.plant_entry_date
+            FROM carsil_product p
+            LEFT JOIN carsil_team t ON t.id = p.team_id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SnapshotStore snapshotStore;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Sin fotos todavía (primer arranque) las consultas no tendrían nada que mostrar hasta la noche
+    @EventListener(ApplicationReadyEvent.class)
+    public void snapshotIfEmpty() {
+        if (snapshotStore.isEmpty()) scheduledSnapshot();
+    }
+
+    @Scheduled(cron = "${carsil.analytics.snapshot-cron:0 30 23 * * *}", zone = "${carsil.analytics.zone:}")
+    public void scheduledSnapshot() {
+        try {
+            takeSnapshot();
+        } catch (RuntimeException e) {
+            log.warn("Product snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    public ProductSnapshot takeSnapshot() {
+        lock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            ProductSnapshot.Builder builder = new ProductSnapshot.Builder(Instant.now());
+            JdbcTemplate cursor = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+            cursor.setFetchSize(1000);
+            cursor.query(SELECT, rs -> {
+                builder.add(rs.getLong("id"), rs.getObject("team_id", Long.class), rs.getString("team_name"),
+                        rs.getString("campaign"), rs.getString("brand"), rs.getString("status"),
+                        rs.getObject("quantity", Integer.class), rs.getObject("quantity_made", Integer.class),
+                        rs.getObject("missing", Integer.class), rs.getObject("sam_total", Integer.class),
+                        rs.getObject("assigned_date", LocalDate.class), rs.getObject("plant_entry_date", LocalDate.class));
+            });
+            ProductSnapshot snapshot = snapshotStore.add(builder);
+            log.info("Product snapshot taken: {} products, {} KB in {} ms",
+                    snapshot.getRows(), snapshot.getSizeBytes() / 1024, System.currentTimeMillis() - start);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
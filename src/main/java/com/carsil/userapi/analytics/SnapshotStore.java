@@ -0,0 +1,112 @@
+package com.carsil.userapi.analytics;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Directorio de fotos de productos: un archivo por foto, mapeado en memoria al arrancar o al crearse.
+ * Se guarda una foto por día de {@link #zone()}: una nueva reemplaza a las anteriores del mismo día. Las
+ * fotos más viejas que retention-days se borran al agregar una nueva.
+ */
+@Slf4j
+@Component
+public class SnapshotStore {
+
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("'products-'uuuuMMdd'T'HHmmssSSS'Z.snap'")
+            .withZone(ZoneOffset.UTC);
+
+    @Value("${carsil.analytics.dir:data/analytics}")
+    private Path dir;
+
+    @Value("${carsil.analytics.retention-days:730}")
+    private int retentionDays;
+
+    // Misma zona que el cron de la foto y los periodos de la serie; vacío = la del servidor
+    @Value("${carsil.analytics.zone:}")
+    private String zoneId;
+
+    private ZoneId zone;
+
+    private final ConcurrentSkipListMap<Instant, ProductSnapshot> snapshots = new ConcurrentSkipListMap<>();
+
+    @PostConstruct
+    public void load() throws IOException {
+        zone = zoneId == null || zoneId.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zoneId);
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".snap")).toList()) {
+                try {
+                    ProductSnapshot snapshot = ProductSnapshot.open(file);
+                    snapshots.put(snapshot.getTakenAt(), snapshot);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable product snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        log.info("Product snapshots loaded: {} from {}", snapshots.size(), dir.toAbsolutePath());
+    }
+
+    /** Escribe la foto (a un temporal que luego se renombra) y la deja disponible para consultas. */
+    public ProductSnapshot add(ProductSnapshot.Builder builder) throws IOException {
+        Instant takenAt = builder.takenAt();
+        Files.createDirectories(dir);
+        Path target = dir.resolve(FILE_NAME.format(takenAt));
+        Path tmp = dir.resolve(target.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        builder.write(tmp);
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        ProductSnapshot snapshot = ProductSnapshot.open(target);
+        // La clave es el takenAt del archivo (en ms), no el del builder
+        Instant key = snapshot.getTakenAt();
+        snapshots.put(key, snapshot);
+        drop(snapshots.subMap(LocalDate.ofInstant(key, zone).atStartOfDay(zone).toInstant(), true, key, false));
+        drop(snapshots.headMap(key.minus(Duration.ofDays(retentionDays)), false));
+        return snapshot;
+    }
+
+    /** Zona en la que se cuentan los días de las fotos. */
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public boolean isEmpty() {
+        return snapshots.isEmpty();
+    }
+
+    public List<ProductSnapshot> all() {
+        return new ArrayList<>(snapshots.values());
+    }
+
+    /** Fotos tomadas en [from, to), de la más vieja a la más nueva. */
+    public NavigableMap<Instant, ProductSnapshot> between(Instant from, Instant to) {
+        return snapshots.subMap(from, true, to, false);
+    }
+
+    private void drop(NavigableMap<Instant, ProductSnapshot> old) {
+        for (ProductSnapshot snapshot : List.copyOf(old.values())) {
+            snapshots.remove(snapshot.getTakenAt());
+            try {
+                // El mapeo de una consulta en curso sigue válido aunque el archivo se borre
+                Files.deleteIfExists(snapshot.getFile());
+            } catch (IOException e) {
+                log.warn("Could not delete old product snapshot {}: {}", snapshot.getFile(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.carsil.userapi.cache;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice inverso grupo → claves cacheadas (p. ej. módulo → ids). Los grupos vacíos se borran para que
+ * el índice no crezca más que la caché.
+ */
+final class KeyIndex<G, K> {
+
+    private final ConcurrentHashMap<G, Set<K>> keysByGroup = new ConcurrentHashMap<>();
+
+    void add(G group, K key) {
+        if (group == null) return;
+        keysByGroup.compute(group, (g, keys) -> {
+            if (keys == null) keys = ConcurrentHashMap.newKeySet();
+            keys.add(key);
+            return keys;
+        });
+    }
+
+    void remove(G group, K key) {
+        if (group == null) return;
+        keysByGroup.computeIfPresent(group, (g, keys) -> keys.remove(key) && keys.isEmpty() ? null : keys);
+    }
+
+    // Copia: quien la recorre suele ir invalidando claves, y eso toca el índice
+    List<K> keys(G group) {
+        Set<K> keys = group == null ? null : keysByGroup.get(group);
+        return keys == null ? List.of() : List.copyOf(keys);
+    }
+
+    int groups() {
+        return keysByGroup.size();
+    }
+}
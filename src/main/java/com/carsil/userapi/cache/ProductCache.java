@@ -0,0 +1,210 @@
+package com.carsil.userapi.cache;
+
+import com.carsil.userapi.dto.CacheStats;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.Team;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Caché en memoria (acotada por tamaño y TTL) de las consultas por id y por OP.
+ * Cada producto cacheado lleva su módulo serializado (carga, personas), así que una escritura
+ * invalida el producto, su OP anterior y actual, y todo lo cacheado del mismo módulo.
+ * <p>
+ * Para no recorrer la caché entera en cada escritura se llevan índices inversos (módulo → ids,
+ * módulo → OPs, id → OPs). Se actualizan dentro del compute de la clave en la caché (o en el
+ * evictionListener, que también corre ahí), así que para una misma clave índice y caché no se desfasan.
+ */
+@Component
+public class ProductCache {
+
+    @Value("${carsil.cache.products.max-size:10000}")
+    private long maxSize;
+
+    @Value("${carsil.cache.products.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<Long, Product> byId;
+    private Cache<String, List<Product>> byOp;
+
+    private final KeyIndex<Long, Long> idsByTeam = new KeyIndex<>();
+    private final KeyIndex<Long, String> opsByTeam = new KeyIndex<>();
+    private final KeyIndex<Long, String> opsByProduct = new KeyIndex<>();
+
+    // Cuenta las invalidaciones: una carga que se cruzó con una no se guarda (podría ser previa al commit)
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((Long id, Product p, RemovalCause cause) -> unindexId(id, p))
+                .recordStats()
+                .build();
+        byOp = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .evictionListener((String op, List<Product> list, RemovalCause cause) -> unindexOp(op, list))
+                .recordStats()
+                .build();
+    }
+
+    // Si el loader devuelve null (no existe) no se guarda nada
+    public Product getById(Long id, Function<Long, Product> loader) {
+        return getOrLoad(byId, id, loader, this::putId);
+    }
+
+    public List<Product> getByOp(String op, Function<String, List<Product>> loader) {
+        return getOrLoad(byOp, op, loader, this::putOp);
+    }
+
+    /*
+     * La consulta corre fuera del mapa: Cache.get(key, loader) la ejecuta dentro del lock (synchronized)
+     * del bucket del ConcurrentHashMap, lo que frena otras claves del mismo bucket y, con hilos virtuales,
+     * deja fijado el hilo portador mientras espera a la base. Dos misses simultáneos cargan dos veces.
+     */
+    private <K, V> V getOrLoad(Cache<K, V> cache, K key, Function<K, V> loader, BiConsumer<K, V> put) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) return cached;
+        long generation = evictions.get();
+        V loaded = loader.apply(key);
+        if (loaded != null && evictions.get() == generation) put.accept(key, loaded);
+        return loaded;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product p = event.getProduct();
+        if (p == null || p.getId() == null) return;
+        if (event.getType() == ProductChangedEvent.Type.IMPORTED) {
+            // Producto nuevo: no hay nada por id, solo la lista (quizá vacía) de su OP
+            evictions.incrementAndGet();
+            if (p.getOp() != null) removeOp(p.getOp());
+        } else {
+            evictProduct(p);
+        }
+    }
+
+    public void evictProduct(Product p) {
+        evictions.incrementAndGet();
+        Long id = p.getId();
+        Set<Long> teams = new HashSet<>();
+        addTeam(teams, p.getTeam());
+
+        // La versión cacheada dice en qué módulo y con qué OP estaba antes de la escritura
+        Product previous = removeId(id);
+        if (previous != null) addTeam(teams, previous.getTeam());
+        if (p.getOp() != null) removeOp(p.getOp());
+        for (String op : opsByProduct.keys(id)) {
+            List<Product> list = removeOp(op);
+            if (list == null) continue;
+            for (Product cached : list) {
+                if (id.equals(cached.getId())) addTeam(teams, cached.getTeam());
+            }
+        }
+        evictTeams(teams);
+    }
+
+    /** Invalida lo cacheado del módulo al terminar la transacción actual (o ya, si no hay). */
+    public void evictTeamAfterCommit(Long teamId) {
+        if (teamId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictTeams(Set.of(teamId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictTeams(Set.of(teamId));
+            }
+        });
+    }
+
+    private void evictTeams(Set<Long> teams) {
+        if (teams.isEmpty()) return;
+        evictions.incrementAndGet();
+        for (Long team : teams) {
+            for (Long id : idsByTeam.keys(team)) removeId(id);
+            for (String op : opsByTeam.keys(team)) removeOp(op);
+        }
+    }
+
+    private void putId(Long id, Product p) {
+        byId.asMap().compute(id, (k, old) -> {
+            if (old != null) unindexId(k, old);
+            idsByTeam.add(teamIdOf(p), k);
+            return p;
+        });
+    }
+
+    private void putOp(String op, List<Product> list) {
+        byOp.asMap().compute(op, (k, old) -> {
+            if (old != null) unindexOp(k, old);
+            for (Product p : list) {
+                opsByTeam.add(teamIdOf(p), k);
+                opsByProduct.add(p.getId(), k);
+            }
+            return list;
+        });
+    }
+
+    private Product removeId(Long id) {
+        AtomicReference<Product> removed = new AtomicReference<>();
+        byId.asMap().computeIfPresent(id, (k, p) -> {
+            unindexId(k, p);
+            removed.set(p);
+            return null;
+        });
+        return removed.get();
+    }
+
+    private List<Product> removeOp(String op) {
+        AtomicReference<List<Product>> removed = new AtomicReference<>();
+        byOp.asMap().computeIfPresent(op, (k, list) -> {
+            unindexOp(k, list);
+            removed.set(list);
+            return null;
+        });
+        return removed.get();
+    }
+
+    private void unindexId(Long id, Product p) {
+        idsByTeam.remove(teamIdOf(p), id);
+    }
+
+    private void unindexOp(String op, List<Product> list) {
+        for (Product p : list) {
+            opsByTeam.remove(teamIdOf(p), op);
+            opsByProduct.remove(p.getId(), op);
+        }
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(CacheStats.of("byId", byId), CacheStats.of("byOp", byOp));
+    }
+
+    private static void addTeam(Set<Long> teams, Team team) {
+        if (team != null && team.getId() != null) teams.add(team.getId());
+    }
+
+    private static Long teamIdOf(Product p) {
+        return p.getTeam() == null ? null : p.getTeam().getId();
+    }
+}
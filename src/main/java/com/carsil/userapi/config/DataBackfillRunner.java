@@ -0,0 +1,23 @@
+package com.carsil.userapi.config;
+
+import com.carsil.userapi.service.TeamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// Completa columnas agregadas nuevas sobre filas que ya existían antes de crearlas
+@Slf4j
+@Component
+public class DataBackfillRunner implements ApplicationRunner {
+
+    @Autowired
+    private TeamService teamService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int teams = teamService.backfillLoadAggregates();
+        if (teams > 0) log.info("Backfilled sam_total_sum for {} teams", teams);
+    }
+}
@@ -0,0 +1,70 @@
+package com.carsil.userapi.config;
+
+import com.carsil.userapi.model.enums.EnumCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Registra un {@link EnumCodec} por cada enum del modelo en el ObjectMapper de Spring (que toma los
+ * Module que sean beans). Lee sobre el buffer de caracteres del parser y escribe textos ya escapados.
+ */
+@Component
+public class EnumCodecModule extends SimpleModule {
+
+    public EnumCodecModule() {
+        super("carsil-enum-codecs");
+        EnumCodec.all().forEach(this::register);
+    }
+
+    private <E extends Enum<E>> void register(EnumCodec<E> codec) {
+        addSerializer(codec.type(), new Serializer<>(codec));
+        addDeserializer(codec.type(), new Deserializer<>(codec));
+    }
+
+    static final class Serializer<E extends Enum<E>> extends StdScalarSerializer<E> {
+        private final SerializedString[] text;
+
+        Serializer(EnumCodec<E> codec) {
+            super(codec.type());
+            E[] constants = codec.type().getEnumConstants();
+            text = new SerializedString[constants.length];
+            for (E e : constants) text[e.ordinal()] = new SerializedString(codec.text(e));
+        }
+
+        @Override
+        public void serialize(E value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(text[value.ordinal()]);
+        }
+    }
+
+    static final class Deserializer<E extends Enum<E>> extends StdScalarDeserializer<E> {
+        private final EnumCodec<E> codec;
+
+        Deserializer(EnumCodec<E> codec) {
+            super(codec.type());
+            this.codec = codec;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            // Las tallas numéricas pueden llegar sin comillas: "2" o 2
+            if (p.hasToken(JsonToken.VALUE_STRING) || p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                E value = codec.find(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                if (value != null) return value;
+                return (E) ctxt.handleWeirdStringValue(handledType(), p.getText(), "Invalid %s", codec.description());
+            }
+            return (E) ctxt.handleUnexpectedToken(handledType(), p);
+        }
+    }
+}
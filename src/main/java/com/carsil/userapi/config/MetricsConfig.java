@@ -0,0 +1,19 @@
+package com.carsil.userapi.config;
+
+import com.carsil.userapi.metrics.JdbcStatementMetricsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public FilterRegistrationBean<JdbcStatementMetricsFilter> jdbcStatementMetricsFilter(MeterRegistry registry) {
+        FilterRegistrationBean<JdbcStatementMetricsFilter> bean =
+                new FilterRegistrationBean<>(new JdbcStatementMetricsFilter(registry));
+        bean.addUrlPatterns("/api/*");
+        return bean;
+    }
+}
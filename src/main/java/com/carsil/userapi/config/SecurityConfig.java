@@ -1,12 +1,21 @@
 package com.carsil.userapi.config;
 
+import com.carsil.userapi.security.AuthTokenService;
+import com.carsil.userapi.security.BearerTokenFilter;
+import com.carsil.userapi.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -16,13 +25,31 @@ import java.util.List;
 @Configuration
 public class SecurityConfig {
 
+    // BCrypt corre en su propio pool acotado, no en los hilos de Tomcat (ver BoundedPasswordEncoder)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${carsil.auth.verify.threads:0}") int threads,
+            @Value("${carsil.auth.verify.queue-capacity:64}") int queueCapacity,
+            @Value("${carsil.auth.verify.timeout-ms:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity, timeoutMs);
     }
 
+    // Único usuario de Basic: el scraper de /actuator/prometheus y /actuator/metrics. Sin contraseña configurada no hay ninguno
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public UserDetailsService metricsUser(
+            @Value("${carsil.metrics.user:metrics}") String name,
+            @Value("${carsil.metrics.password:}") String password,
+            PasswordEncoder passwordEncoder) {
+        if (password.isBlank()) return new InMemoryUserDetailsManager();
+        return new InMemoryUserDetailsManager(User.withUsername(name)
+                .password(passwordEncoder.encode(password))
+                .roles("METRICS")
+                .build());
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthTokenService tokenService) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
@@ -30,11 +57,17 @@ public class SecurityConfig {
                                 "/api/users",
                                 "/api/users/**",
                                 "/api/auth/login",
+                                "/api/auth/logout",
                                 "/api/teams/**",
                                 "/h2-console/**",
+                                "/actuator/health",
                                 "/api/products/**").permitAll()
+                        .requestMatchers("/actuator/prometheus", "/actuator/metrics", "/actuator/metrics/**").hasRole("METRICS")
+                        // Las consultas son públicas; tomar una foto recorre toda la tabla de productos
+                        .requestMatchers(HttpMethod.GET, "/api/analytics/**").permitAll()
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(new BearerTokenFilter(tokenService), BasicAuthenticationFilter.class)
                 .cors(Customizer.withDefaults())
                 .httpBasic(Customizer.withDefaults());
 
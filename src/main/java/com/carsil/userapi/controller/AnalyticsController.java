@@ -0,0 +1,48 @@
+package com.carsil.userapi.controller;
+
+import com.carsil.userapi.analytics.ProductAnalytics;
+import com.carsil.userapi.analytics.ProductSnapshot;
+import com.carsil.userapi.analytics.ProductSnapshotJob;
+import com.carsil.userapi.dto.AnalyticsPoint;
+import com.carsil.userapi.dto.SnapshotInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private ProductAnalytics productAnalytics;
+
+    @Autowired
+    private ProductSnapshotJob productSnapshotJob;
+
+    @GetMapping("/snapshots")
+    public List<SnapshotInfo> getSnapshots() {
+        return productAnalytics.snapshots();
+    }
+
+    @PostMapping("/snapshots")
+    public SnapshotInfo takeSnapshot() {
+        ProductSnapshot s = productSnapshotJob.takeSnapshot();
+        return new SnapshotInfo(s.getTakenAt(), s.getRows(), s.getSizeBytes());
+    }
+
+    @GetMapping("/series")
+    public List<AnalyticsPoint> getSeries(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "interval", defaultValue = "week") String interval,
+            @RequestParam(value = "groupBy", required = false) List<String> groupBy,
+            @RequestParam(value = "entryFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate entryFrom,
+            @RequestParam(value = "entryTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate entryTo) {
+        List<ProductAnalytics.Dimension> dimensions = groupBy == null ? List.of()
+                : groupBy.stream().map(ProductAnalytics.Dimension::of).toList();
+        return productAnalytics.series(from, to, ProductAnalytics.Interval.of(interval), dimensions, entryFrom, entryTo);
+    }
+}
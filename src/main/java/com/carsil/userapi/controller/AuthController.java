@@ -1,6 +1,7 @@
 package com.carsil.userapi.controller;
 
 import com.carsil.userapi.dto.LoginRequest;
+import com.carsil.userapi.security.AuthTokenService;
 import com.carsil.userapi.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +16,25 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthTokenService tokenService;
+
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> login(@Valid @RequestBody LoginRequest req) {
         userService.validateLogin(req.getUserName(), req.getPassword());
-        return ResponseEntity.ok(Map.of("message", "Login successful"));
+        String token = tokenService.issue(req.getUserName());
+        return ResponseEntity.ok(Map.of(
+                "message", "Login successful",
+                "token", token,
+                "tokenType", "Bearer",
+                "expiresIn", String.valueOf(tokenService.ttlSeconds())));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            tokenService.revoke(authorization.substring(7).trim());
+        }
+        return ResponseEntity.noContent().build();
     }
 }
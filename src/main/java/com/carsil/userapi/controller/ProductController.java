@@ -1,34 +1,115 @@
 package com.carsil.userapi.controller;
 
+import com.carsil.userapi.dto.AutocompleteSuggestion;
+import com.carsil.userapi.dto.CacheStats;
+import com.carsil.userapi.dto.ImportReport;
+import com.carsil.userapi.dto.ProductPage;
+import com.carsil.userapi.dto.ProductSearchPage;
+import com.carsil.userapi.dto.ProductSummary;
+import com.carsil.userapi.dto.ProgressResult;
+import com.carsil.userapi.dto.ProgressUpdate;
+import com.carsil.userapi.dto.SizeProgressUpdate;
+import com.carsil.userapi.exporter.ExportFormat;
+import com.carsil.userapi.feed.ProgressFeed;
 import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.search.ProductAutocomplete;
+import com.carsil.userapi.service.ProductExportService;
+import com.carsil.userapi.service.ProductImportService;
 import com.carsil.userapi.service.ProductService;
+import com.carsil.userapi.service.ProgressCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProgressCoalescer progressCoalescer;
+
+    @Autowired
+    private ProductAutocomplete productAutocomplete;
+
+    @Autowired
+    private ProgressFeed progressFeed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public List<Product> getProducts() {
         return productService.getAll();
     }
 
+    @GetMapping("/page")
+    public ProductPage getProductsPage(
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        return productService.getPage(after, size);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                productService.streamAll(p -> {
+                    try {
+                        writer.write(p);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping
     public Product createProduct(@RequestBody Product product) {
         return productService.create(product);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ImportReport importProducts(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "charset", defaultValue = "UTF-8") Charset charset) throws IOException {
+        return productImportService.importFile(file, charset);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteProduct(@PathVariable Long id) {
         productService.delete(id);
@@ -44,6 +125,26 @@ public class ProductController {
         return productService.search(q);
     }
 
+    @GetMapping("/search/page")
+    public ProductSearchPage searchProductsPage(
+            @RequestParam("q") String q,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return productService.searchPage(q, page, size);
+    }
+
+    @GetMapping("/autocomplete")
+    public List<AutocompleteSuggestion> autocomplete(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return productAutocomplete.suggest(prefix, limit);
+    }
+
+    @GetMapping("/cache/stats")
+    public List<CacheStats> getCacheStats() {
+        return productService.getCacheStats();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         return productService.getById(id)
@@ -77,14 +178,69 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam("endDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (startDate.isAfter(endDate)) throw new IllegalArgumentException("startDate must not be after endDate");
+        StreamingResponseBody body = out -> productExportService.export(startDate, endDate, exportFormat, out);
+        String fileName = "products_" + startDate + "_" + endDate + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Cambios de productos por SSE (evento "product"), en vez de consultar la lista cada pocos segundos.
+     * Filtros opcionales y repetibles: ?teamId=1&teamId=2&brand=TENNIS. Un evento "dropped" avisa que el
+     * cliente no alcanzó a leer algunos y debe recargar.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> feed(
+            @RequestParam(value = "teamId", required = false) List<Long> teamIds,
+            @RequestParam(value = "brand", required = false) List<String> brands) {
+        Set<Brand> brandFilter = brands == null ? Set.of()
+                : brands.stream().map(Brand.CODEC::parse).collect(Collectors.toSet());
+        Set<Long> teamFilter = teamIds == null ? Set.of() : Set.copyOf(teamIds);
+        // Cupo lleno: 503 sin cuerpo (el cliente pidió text/event-stream, no hay JSON de error que negociar)
+        return progressFeed.subscribe(teamFilter, brandFilter)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build());
+    }
+
+    @GetMapping("/summary/{by}")
+    public List<? extends ProductSummary> getSummary(
+            @PathVariable String by,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return productService.getSummary(by, from, to);
+    }
+
     @PutMapping("/{id}/made")
     public Product setMade(@PathVariable Long id, @RequestParam("value") int value) {
         return productService.setMade(id, value);
     }
 
     @PatchMapping("/{id}/progress")
-    public Product incrementProgress(@PathVariable Long id, @RequestParam int delta) {
-        return productService.incrementMade(id, delta);
+    public ResponseEntity<Product> incrementProgress(@PathVariable Long id, @RequestParam int delta) {
+        if (progressCoalescer.isEnabled()) {
+            progressCoalescer.submit(id, delta);
+            return ResponseEntity.accepted().build();
+        }
+        return ResponseEntity.ok(productService.incrementMade(id, delta));
+    }
+
+    @PostMapping("/progress/batch")
+    public List<ProgressResult> applyProgressBatch(@RequestBody List<ProgressUpdate> updates) {
+        return productService.applyProgressBatch(updates);
+    }
+
+    @PostMapping("/progress/sizes")
+    public List<ProgressResult> applySizeProgress(@RequestBody List<SizeProgressUpdate> updates) {
+        return productService.applySizeProgressBatch(updates);
     }
 
     @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
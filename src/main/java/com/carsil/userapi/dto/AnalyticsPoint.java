@@ -0,0 +1,28 @@
+package com.carsil.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/** Totales de un grupo en un periodo, tomados de la última foto de ese periodo. */
+@Getter
+@Builder
+@AllArgsConstructor
+public class AnalyticsPoint {
+    // Primer día del periodo (lunes para week, día 1 para month)
+    private final LocalDate period;
+    private final Instant takenAt;
+    // Dimensión -> valor, en el orden de groupBy
+    private final Map<String, String> group;
+    private final long products;
+    private final long quantity;
+    private final long quantityMade;
+    private final long missing;
+    private final long samTotal;
+    // quantityMade / quantity, en %
+    private final double madePct;
+}
@@ -0,0 +1,17 @@
+package com.carsil.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class AutocompleteSuggestion {
+    private final String value;
+    // "op" o "reference"
+    private final String field;
+    private final int productCount;
+    // primeros ids con ese valor (una referencia puede tener muchos productos)
+    private final List<Long> productIds;
+}
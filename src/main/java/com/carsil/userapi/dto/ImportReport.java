@@ -0,0 +1,30 @@
+package com.carsil.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class ImportReport {
+
+    private final long rows;
+    private final long inserted;
+    // OP repetida en el archivo o ya existente en la base
+    private final long duplicates;
+    private final long rejected;
+    private final long elapsedMs;
+    // Solo los primeros errores; los conteos de arriba incluyen todos
+    private final List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private final long line;
+        private final String op;
+        private final String message;
+    }
+}
@@ -0,0 +1,15 @@
+package com.carsil.userapi.dto;
+
+import com.carsil.userapi.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductPage {
+    private final List<Product> items;
+    // id del último elemento; null cuando no hay más páginas
+    private final Long nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.carsil.userapi.dto;
+
+import com.carsil.userapi.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductSearchPage {
+    private final List<Product> items;
+    private final int total;
+    private final int page;
+    private final int size;
+}
@@ -0,0 +1,16 @@
+package com.carsil.userapi.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Totales de producción de un grupo (estado, marca, módulo o campaña), calculados con GROUP BY en la base.
+ */
+public interface ProductSummary {
+    Object getKey();
+    long getProducts();
+    long getQuantity();
+    long getQuantityMade();
+    long getMissing();
+    long getSamTotal();
+    BigDecimal getTotalPrice();
+}
@@ -0,0 +1,21 @@
+package com.carsil.userapi.dto;
+
+import com.carsil.userapi.model.SizeQuantities;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder(toBuilder = true)
+@AllArgsConstructor
+public class ProgressResult {
+
+    private final Long productId;
+    // delta del item; success, quantityMade y missing son del producto tras aplicar todos sus items
+    private final int delta;
+    private final boolean success;
+    private final Integer quantityMade;
+    private final Integer missing;
+    private final SizeQuantities sizeMade;
+    private final String error;
+}
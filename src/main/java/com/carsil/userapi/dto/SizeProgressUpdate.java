@@ -0,0 +1,15 @@
+package com.carsil.userapi.dto;
+
+import com.carsil.userapi.model.enums.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SizeProgressUpdate {
+    private Long productId;
+    private Size size;
+    private Integer delta;
+}
@@ -0,0 +1,14 @@
+package com.carsil.userapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class SnapshotInfo {
+    private final Instant takenAt;
+    private final int products;
+    private final long sizeBytes;
+}
@@ -0,0 +1,6 @@
+package com.carsil.userapi.dto;
+
+// En el resumen por módulo la clave es el nombre; el id distingue módulos con el mismo nombre
+public interface TeamSummary extends ProductSummary {
+    Long getTeamId();
+}
@@ -0,0 +1,32 @@
+package com.carsil.userapi.event;
+
+import com.carsil.userapi.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se publica en cada escritura de un producto. Los listeners lo reciben con
+ * {@code @TransactionalEventListener}, es decir, solo si la transacción hace commit.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    // IMPORTED: producto nuevo de una importación masiva; los módulos se invalidan una vez por lote
+    public enum Type { SAVED, DELETED, IMPORTED }
+
+    private final Type type;
+    private final Product product;
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(Type.SAVED, product);
+    }
+
+    public static ProductChangedEvent imported(Product product) {
+        return new ProductChangedEvent(Type.IMPORTED, product);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(Type.DELETED, product);
+    }
+}
@@ -0,0 +1,13 @@
+package com.carsil.userapi.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * La verificación de contraseña no tiene cupo (cola llena o espera agotada). Se responde 503 para que
+ * el cliente reintente; es una AuthenticationException para que HTTP Basic también falle limpio.
+ */
+public class LoginThrottledException extends AuthenticationServiceException {
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
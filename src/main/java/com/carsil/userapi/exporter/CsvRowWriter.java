@@ -0,0 +1,46 @@
+package com.carsil.userapi.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/** CSV RFC 4180 (coma, CRLF, comillas solo donde hacen falta). La primera línea es el encabezado. */
+public class CsvRowWriter implements RowWriter {
+
+    private final Writer out;
+
+    public CsvRowWriter(Writer out, List<String> columns) throws IOException {
+        this.out = out;
+        write(columns);
+    }
+
+    @Override
+    public void write(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) out.write(',');
+            Object value = values.get(i);
+            if (value != null) out.write(escape(value instanceof BigDecimal d ? d.toPlainString() : value.toString()));
+        }
+        out.write("\r\n");
+    }
+
+    static String escape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
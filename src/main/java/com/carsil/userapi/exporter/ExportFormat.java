@@ -0,0 +1,42 @@
+package com.carsil.userapi.exporter;
+
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson"));
+
+    private final String extension;
+    private final MediaType mediaType;
+
+    ExportFormat(String extension, MediaType mediaType) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+    }
+
+    public String getExtension() { return extension; }
+
+    public MediaType getMediaType() { return mediaType; }
+
+    public static ExportFormat of(String value) {
+        for (ExportFormat f : values()) {
+            if (f.extension.equals(value.toLowerCase(Locale.ROOT))) return f;
+        }
+        throw new IllegalArgumentException("Unsupported format: " + value + " (csv or ndjson)");
+    }
+
+    public RowWriter open(OutputStream out, List<String> columns) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), columns);
+            case NDJSON -> new NdjsonRowWriter(out, columns);
+        };
+    }
+}
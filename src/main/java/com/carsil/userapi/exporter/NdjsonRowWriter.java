@@ -0,0 +1,57 @@
+package com.carsil.userapi.exporter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/** Un objeto JSON por línea con las columnas como claves; los valores null se omiten. */
+public class NdjsonRowWriter implements RowWriter {
+
+    private final JsonGenerator generator;
+    private final List<String> columns;
+    private boolean written;
+
+    public NdjsonRowWriter(OutputStream out, List<String> columns) throws IOException {
+        this.generator = JsonFactory.builder()
+                .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+                .build()
+                .createGenerator(out);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+        this.columns = columns;
+    }
+
+    @Override
+    public void write(List<?> values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.size(); i++) {
+            Object value = values.get(i);
+            if (value == null) continue;
+            generator.writeFieldName(columns.get(i));
+            if (value instanceof Number || value instanceof Boolean) {
+                // Tipos simples: JsonGenerator los escribe sin ObjectMapper
+                generator.writeObject(value);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+        generator.writeEndObject();
+        written = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // La última línea también termina en \n
+        if (written) generator.writeRaw('\n');
+        generator.close();
+    }
+}
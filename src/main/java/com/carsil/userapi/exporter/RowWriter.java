@@ -0,0 +1,13 @@
+package com.carsil.userapi.exporter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.List;
+
+/** Escribe filas una a una sobre la salida; nada se acumula en memoria más allá del buffer. */
+public interface RowWriter extends Closeable, Flushable {
+
+    /** Valores en el orden de las columnas; null = celda vacía. */
+    void write(List<?> values) throws IOException;
+}
@@ -0,0 +1,97 @@
+package com.carsil.userapi.feed;
+
+import com.carsil.userapi.model.enums.Brand;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Un tablero conectado: sus filtros, su cola acotada y su envío. Quien publica solo encola (nunca
+ * escribe en el socket); si la cola está llena se descarta el evento más viejo, y el cliente recibe un
+ * evento "dropped" con cuántos perdió para que recargue por GET.
+ */
+final class FeedClient {
+
+    private final SseEmitter emitter;
+    private final Set<Long> teamIds;
+    private final Set<Brand> brands;
+    private final int capacity;
+    private final LongAdder droppedTotal;
+
+    // Protegidos por this
+    private final ArrayDeque<FeedEvent> buffer;
+    private long dropped;
+    private boolean sending;
+    private boolean closed;
+
+    FeedClient(SseEmitter emitter, Set<Long> teamIds, Set<Brand> brands, int capacity, LongAdder droppedTotal) {
+        this.emitter = emitter;
+        this.teamIds = teamIds;
+        this.brands = brands;
+        this.capacity = capacity;
+        this.droppedTotal = droppedTotal;
+        this.buffer = new ArrayDeque<>(Math.min(capacity, 64));
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /** Filtros vacíos = todo; con ambos, el cambio tiene que pasar los dos. */
+    boolean accepts(ProductChange change) {
+        // Set.copyOf no admite contains(null): un producto sin módulo no pasa un filtro de módulos
+        return (teamIds.isEmpty() || (change.getTeamId() != null && teamIds.contains(change.getTeamId())))
+                && (brands.isEmpty() || (change.getBrand() != null && brands.contains(change.getBrand())));
+    }
+
+    /** @return true si no había un envío en curso y hay que lanzar {@link #drain()} */
+    synchronized boolean offer(FeedEvent event) {
+        if (closed) return false;
+        if (buffer.size() == capacity) {
+            buffer.pollFirst();
+            dropped++;
+            droppedTotal.increment();
+        }
+        buffer.addLast(event);
+        if (sending) return false;
+        sending = true;
+        return true;
+    }
+
+    /** Vacía la cola en el hilo que llama; un solo envío a la vez por cliente. false si el cliente se fue. */
+    boolean drain() {
+        while (true) {
+            FeedEvent next;
+            long lost;
+            synchronized (this) {
+                next = buffer.pollFirst();
+                if (next == null || closed) {
+                    sending = false;
+                    return !closed;
+                }
+                lost = dropped;
+                dropped = 0;
+            }
+            try {
+                if (lost > 0) emitter.send(SseEmitter.event().name("dropped").data("{\"count\":" + lost + "}"));
+                next.sendTo(emitter);
+            } catch (IOException | RuntimeException e) {
+                // Socket cerrado o emitter ya completado: el tablero se desconectó
+                close();
+                return false;
+            }
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        buffer.clear();
+    }
+
+    synchronized int buffered() {
+        return buffer.size();
+    }
+}
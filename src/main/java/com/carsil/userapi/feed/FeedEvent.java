@@ -0,0 +1,22 @@
+package com.carsil.userapi.feed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Evento ya serializado: el JSON se arma una vez y se comparte entre todos los clientes. El builder de
+ * SseEmitter no se puede compartir (acumula texto al enviarse), así que se crea uno por envío.
+ */
+record FeedEvent(long id, String name, String json) {
+
+    static final FeedEvent HEARTBEAT = new FeedEvent(0, null, null);
+
+    void sendTo(SseEmitter emitter) throws IOException {
+        if (this == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("ping"));
+        } else {
+            emitter.send(SseEmitter.event().id(Long.toString(id)).name(name).data(json));
+        }
+    }
+}
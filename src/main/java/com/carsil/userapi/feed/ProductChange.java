@@ -0,0 +1,34 @@
+package com.carsil.userapi.feed;
+
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.ProductionStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Lo que un tablero necesita de un cambio: sin tallas, precio ni el módulo completo. */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChange {
+
+    private final ProductChangedEvent.Type type;
+    private final Long id;
+    private final String op;
+    private final Integer quantityMade;
+    private final Integer missing;
+    private final ProductionStatus status;
+    private final Brand brand;
+    private final Long teamId;
+
+    public static ProductChange of(ProductChangedEvent event) {
+        Product p = event.getProduct();
+        Team team = p.getTeam();
+        // getId de un proxy LAZY no lo inicializa: después del commit no hay consulta extra
+        return new ProductChange(event.getType(), p.getId(), p.getOp(), p.getQuantityMade(), p.getMissing(),
+                p.getStatus(), p.getBrand(), team == null ? null : team.getId());
+    }
+}
@@ -0,0 +1,138 @@
+package com.carsil.userapi.feed;
+
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.enums.Brand;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canal SSE de cambios de productos para los tableros de planta (GET /api/products/feed), en lugar de
+ * consultar GET /api/products cada pocos segundos. Recibe {@link ProductChangedEvent} después del commit,
+ * lo serializa una vez como {@link ProductChange} y lo encola en cada cliente cuyos filtros lo aceptan.
+ * Cada cliente tiene su cola acotada y su propio envío: uno lento pierde sus eventos más viejos sin
+ * demorar a los demás ni al hilo que hizo el commit.
+ */
+@Component
+public class ProgressFeed {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${carsil.feed.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${carsil.feed.max-clients:500}")
+    private int maxClients;
+
+    private final Set<FeedClient> clients = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Un hilo virtual por envío en curso: un socket lento lo deja estacionado sin ocupar un hilo del pool
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("progress-feed-", 0).factory());
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("carsil.feed.clients", clients, Set::size).register(registry);
+        FunctionCounter.builder("carsil.feed.dropped", dropped, LongAdder::sum).register(registry);
+    }
+
+    /**
+     * @param teamIds módulos a seguir; vacío = todos
+     * @param brands  marcas a seguir; vacío = todas
+     * @return vacío si ya hay max-clients conectados
+     */
+    public Optional<SseEmitter> subscribe(Set<Long> teamIds, Set<Brand> brands) {
+        // Sin timeout: el latido detecta los tableros que se fueron sin cerrar
+        return connect(new SseEmitter(0L), teamIds, brands);
+    }
+
+    Optional<SseEmitter> connect(SseEmitter emitter, Set<Long> teamIds, Set<Brand> brands) {
+        if (clients.size() >= maxClients) return Optional.empty();
+        FeedClient client = new FeedClient(emitter, Set.copyOf(teamIds), Set.copyOf(brands), bufferSize, dropped);
+        emitter.onCompletion(() -> remove(client));
+        emitter.onTimeout(() -> remove(client));
+        emitter.onError(e -> remove(client));
+        clients.add(client);
+        // Primer envío: salen las cabeceras y el tablero sabe que quedó conectado
+        enqueue(client, FeedEvent.HEARTBEAT);
+        return Optional.of(emitter);
+    }
+
+    public int clientCount() {
+        return clients.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (clients.isEmpty() || event.getProduct() == null || event.getProduct().getId() == null) return;
+        ProductChange change = ProductChange.of(event);
+        FeedEvent feedEvent = null;
+        for (FeedClient client : clients) {
+            if (!client.accepts(change)) continue;
+            if (feedEvent == null) feedEvent = new FeedEvent(sequence.incrementAndGet(), "product", toJson(change));
+            enqueue(client, feedEvent);
+        }
+    }
+
+    // Mantiene abiertas las conexiones tras proxies y descubre los clientes caídos (el envío falla)
+    @Scheduled(fixedDelayString = "${carsil.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        clients.forEach(client -> enqueue(client, FeedEvent.HEARTBEAT));
+    }
+
+    @PreDestroy
+    void closeAll() {
+        clients.forEach(client -> {
+            client.close();
+            client.emitter().complete();
+        });
+        clients.clear();
+        senders.shutdownNow();
+    }
+
+    private void enqueue(FeedClient client, FeedEvent event) {
+        if (client.offer(event)) {
+            senders.execute(() -> {
+                if (!client.drain()) remove(client);
+            });
+        }
+    }
+
+    private void remove(FeedClient client) {
+        client.close();
+        clients.remove(client);
+    }
+
+    private String toJson(ProductChange change) {
+        try {
+            return objectMapper.writeValueAsString(change);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product change " + change.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.carsil.userapi.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV (RFC 4180): comillas dobles, "" como comilla escapada y saltos de línea dentro de comillas.
+ * El separador se detecta en el encabezado: ';' si aparece antes que ',' (Excel en español lo usa).
+ */
+public class CsvRowReader implements RowReader {
+
+    private final Reader in;
+    private char delimiter;
+    private int pushedBack = -2;
+    private long line;
+    private long nextLine = 1;
+
+    public CsvRowReader(Reader in) {
+        this.in = in.markSupported() ? in : new BufferedReader(in, 64 * 1024);
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) return null;
+        if (delimiter == 0) delimiter = detectDelimiter(c);
+        line = nextLine;
+
+        List<String> row = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw new IllegalArgumentException("Unclosed quote starting on line " + line);
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        unread(peek);
+                    }
+                } else {
+                    if (c == '\n') nextLine++;
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                row.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int peek = read();
+                    if (peek != '\n') unread(peek);
+                }
+                if (c != -1) nextLine++;
+                row.add(cell.toString());
+                return row;
+            } else {
+                cell.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Mira el resto de la primera línea sin consumirla
+    private char detectDelimiter(int first) throws IOException {
+        in.mark(8192);
+        int c = first;
+        try {
+            while (c != -1 && c != '\n') {
+                if (c == ';') return ';';
+                if (c == ',') return ',';
+                c = in.read();
+            }
+            return ',';
+        } finally {
+            in.reset();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        int c = in.read();
+        // BOM de UTF-8 que deja Excel al inicio del archivo
+        if (c == '\uFEFF' && nextLine == 1 && delimiter == 0) c = in.read();
+        return c;
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
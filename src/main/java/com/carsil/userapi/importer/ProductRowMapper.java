@@ -0,0 +1,171 @@
+package com.carsil.userapi.importer;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.ProductionStatus;
+import com.carsil.userapi.model.enums.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Convierte filas de la hoja de planeación en {@link Product}. Las columnas se reconocen por nombre
+ * (los mismos del JSON de POST /api/products, sin importar mayúsculas, espacios ni guiones bajos) y
+ * cada talla va en su propia columna (S, M, L, XL, 2, 4...).
+ */
+public class ProductRowMapper {
+
+    private static final Set<String> FIELDS = Set.of("op", "reference", "campaign", "type", "price", "brand",
+            "assigneddate", "plantentrydate", "description", "sam", "status", "quantity", "teamid");
+
+    private static final Set<String> REQUIRED = Set.of("op", "reference", "campaign", "type", "price", "assigneddate");
+
+    private static final DateTimeFormatter DAY_MONTH_YEAR = DateTimeFormatter.ofPattern("d/M/uuuu");
+
+    // Día 0 del sistema de fechas 1900 de Excel (corrido un día por el 29/02/1900 que Excel da por válido)
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    private final Map<String, Integer> fieldColumns = new HashMap<>();
+    private final Map<Size, Integer> sizeColumns = new EnumMap<>(Size.class);
+
+    public ProductRowMapper(List<String> header) {
+        for (int i = 0; i < header.size(); i++) {
+            String raw = header.get(i) == null ? "" : header.get(i).trim();
+            if (raw.isEmpty()) continue;
+            String key = normalize(raw);
+            Size size = Size.CODEC.find(raw);
+            if (FIELDS.contains(key)) {
+                if (fieldColumns.putIfAbsent(key, i) != null) throw new IllegalArgumentException("Duplicate column: " + raw);
+            } else if (size != null) {
+                if (sizeColumns.putIfAbsent(size, i) != null) {
+                    throw new IllegalArgumentException("Duplicate column: " + raw);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown column: " + raw);
+            }
+        }
+        List<String> missing = REQUIRED.stream().filter(f -> !fieldColumns.containsKey(f)).sorted().toList();
+        if (!missing.isEmpty()) throw new IllegalArgumentException("Missing columns: " + String.join(", ", missing));
+        if (sizeColumns.isEmpty()) throw new IllegalArgumentException("At least one size column is required (S, M, L...)");
+    }
+
+    public static boolean isBlank(List<String> row) {
+        return row.stream().allMatch(cell -> cell == null || cell.isBlank());
+    }
+
+    /** Producto sin id ni validar; lanza IllegalArgumentException si una celda no se puede leer. */
+    public Product map(List<String> row) {
+        Product p = new Product();
+        p.setOp(digits(row, "op"));
+        p.setReference(digits(row, "reference"));
+        p.setCampaign(digits(row, "campaign"));
+        p.setType(text(row, "type"));
+        p.setDescription(text(row, "description"));
+        p.setPrice(decimal(row, "price"));
+        p.setAssignedDate(date(row, "assigneddate"));
+        p.setPlantEntryDate(date(row, "plantentrydate"));
+        p.setBrand(brand(text(row, "brand")));
+        p.setStatus(status(text(row, "status")));
+        BigDecimal sam = decimal(row, "sam");
+        p.setSam(sam == null ? null : sam.doubleValue());
+        // 0 = se toma de la suma de tallas (validateForCreate)
+        p.setQuantity(Optional.ofNullable(integer(row, "quantity", fieldColumns.get("quantity"))).orElse(0));
+        p.setQuantityMade(0);
+
+        Long teamId = Optional.ofNullable(integer(row, "teamId", fieldColumns.get("teamid"))).map(Long::valueOf).orElse(null);
+        if (teamId != null) {
+            Team team = new Team();
+            team.setId(teamId);
+            p.setTeam(team);
+        }
+
+        SizeQuantities sizes = new SizeQuantities();
+        sizeColumns.forEach((size, column) -> {
+            Integer units = integer(row, size.getLabel(), column);
+            if (units != null) sizes.set(size, units);
+        });
+        p.setSizeQuantities(sizes);
+        return p;
+    }
+
+    /** La OP de la fila tal como venga, para reportar una fila que no se pudo leer. */
+    public String op(List<String> row) {
+        return digits(row, "op");
+    }
+
+    private String text(List<String> row, String field) {
+        Integer column = fieldColumns.get(field);
+        if (column == null || column >= row.size()) return null;
+        String value = row.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Excel guarda las OP numéricas como número: "100001.0" o "1.00001E5" vuelven a ser "100001"
+    private String digits(List<String> row, String field) {
+        String value = text(row, field);
+        if (value == null || value.chars().allMatch(Character::isDigit)) return value;
+        try {
+            return new BigDecimal(value).toBigIntegerExact().toString();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return value;
+        }
+    }
+
+    private BigDecimal decimal(List<String> row, String field) {
+        String value = text(row, field);
+        if (value == null) return null;
+        // 15000,50 (coma decimal) pero no 15.000,50
+        if (value.indexOf(',') >= 0 && value.indexOf('.') < 0) value = value.replace(',', '.');
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + ": not a number '" + value + "'");
+        }
+    }
+
+    private Integer integer(List<String> row, String name, Integer column) {
+        if (column == null || column >= row.size() || row.get(column).isBlank()) return null;
+        String value = row.get(column).trim();
+        try {
+            return new BigDecimal(value).intValueExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException(name + ": not an integer '" + value + "'");
+        }
+    }
+
+    private LocalDate date(List<String> row, String field) {
+        String value = text(row, field);
+        if (value == null) return null;
+        try {
+            if (value.indexOf('/') > 0) return LocalDate.parse(value, DAY_MONTH_YEAR);
+            if (value.indexOf('-') > 0) return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+            return EXCEL_EPOCH.plusDays(new BigDecimal(value).longValue());
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException(field + ": invalid date '" + value + "' (yyyy-MM-dd or dd/MM/yyyy)");
+        }
+    }
+
+    // Por nombre (TENNIS) o por etiqueta (TENNIS SAS); vacío = BLANK
+    private static Brand brand(String value) {
+        if (value == null) return Brand.BLANK;
+        Brand brand = Brand.CODEC.find(value);
+        if (brand == null) throw new IllegalArgumentException("brand: unknown '" + value + "'");
+        return brand;
+    }
+
+    private static ProductionStatus status(String value) {
+        if (value == null) return ProductionStatus.PROCESO;
+        ProductionStatus status = ProductionStatus.CODEC.find(value);
+        if (status == null) throw new IllegalArgumentException("status: unknown '" + value + "'");
+        return status;
+    }
+
+    private static String normalize(String header) {
+        return header.toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "");
+    }
+}
@@ -0,0 +1,15 @@
+package com.carsil.userapi.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/** Lee una hoja fila por fila sin cargar el archivo completo. La primera fila es el encabezado. */
+public interface RowReader extends Closeable {
+
+    /** Siguiente fila, o null al terminar. Las celdas vacías llegan como "". */
+    List<String> next() throws IOException;
+
+    /** Línea (CSV) o fila (XLSX) de la última fila leída, para los mensajes de error. */
+    long line();
+}
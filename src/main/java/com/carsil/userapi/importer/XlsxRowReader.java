@@ -0,0 +1,201 @@
+package com.carsil.userapi.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Lee la primera hoja de un .xlsx con StAX, fila por fila, sin cargar el libro en memoria (solo la
+ * tabla de textos compartidos). Las fechas llegan como el número de serie de Excel; las interpreta
+ * {@link ProductRowMapper}.
+ */
+public class XlsxRowReader implements RowReader {
+
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+
+    static {
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private long line;
+
+    public XlsxRowReader(Path file) throws IOException {
+        try {
+            this.zip = new ZipFile(file.toFile());
+        } catch (ZipException e) {
+            throw new IllegalArgumentException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+        try {
+            this.sharedStrings = readSharedStrings();
+            ZipEntry entry = zip.getEntry(firstSheetPath());
+            if (entry == null) throw new IllegalArgumentException("The workbook has no worksheet");
+            this.sheetStream = zip.getInputStream(entry);
+            this.sheet = XML.createXMLStreamReader(sheetStream);
+        } catch (XMLStreamException e) {
+            zip.close();
+            throw new IllegalArgumentException("Invalid XLSX file", e);
+        } catch (IOException | RuntimeException e) {
+            zip.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String r = sheet.getAttributeValue(null, "r");
+                    line = r == null ? line + 1 : Long.parseLong(r);
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid XLSX sheet near row " + line, e);
+        }
+    }
+
+    @Override
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException ignored) {
+            // el ZipFile se cierra igual
+        } finally {
+            sheetStream.close();
+            zip.close();
+        }
+    }
+
+    private List<String> readRow() throws XMLStreamException {
+        List<String> row = new ArrayList<>();
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) return row;
+            if (event != XMLStreamConstants.START_ELEMENT || !"c".equals(sheet.getLocalName())) continue;
+
+            // Las celdas vacías no se escriben: la referencia (B7) dice en qué columna va cada una
+            String ref = sheet.getAttributeValue(null, "r");
+            int column = ref == null ? row.size() : columnIndex(ref);
+            while (row.size() < column) row.add("");
+            row.add(readCell(sheet.getAttributeValue(null, "t")));
+        }
+        return row;
+    }
+
+    private String readCell(String type) throws XMLStreamException {
+        String value = "";
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) break;
+            if (event == XMLStreamConstants.START_ELEMENT
+                    && ("v".equals(sheet.getLocalName()) || "t".equals(sheet.getLocalName()))) {
+                value = sheet.getElementText();
+            }
+        }
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(value.trim());
+            if (index < 0 || index >= sharedStrings.size()) throw new IllegalArgumentException("Invalid shared string " + index);
+            return sharedStrings.get(index);
+        }
+        if ("b".equals(type)) return "1".equals(value) ? "true" : "false";
+        return value;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry("xl/sharedStrings.xml");
+        if (entry == null) return strings;
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader xml = XML.createXMLStreamReader(in);
+            StringBuilder current = null;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(xml.getLocalName())) current = new StringBuilder();
+                    // Texto con formato: varios <r><t> dentro del mismo <si>; <rPh> es fonética y se omite
+                    else if ("t".equals(xml.getLocalName()) && current != null) current.append(xml.getElementText());
+                    else if ("rPh".equals(xml.getLocalName())) skip(xml);
+                } else if (event == XMLStreamConstants.END_ELEMENT && "si".equals(xml.getLocalName())) {
+                    strings.add(current == null ? "" : current.toString());
+                    current = null;
+                }
+            }
+            xml.close();
+        }
+        return strings;
+    }
+
+    // xl/workbook.xml da el r:id de la primera hoja y xl/_rels/workbook.xml.rels su archivo
+    private String firstSheetPath() throws IOException, XMLStreamException {
+        String relId = null;
+        ZipEntry workbook = zip.getEntry("xl/workbook.xml");
+        if (workbook != null) {
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader xml = XML.createXMLStreamReader(in);
+                while (xml.hasNext() && relId == null) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(xml.getLocalName())) {
+                        for (int i = 0; i < xml.getAttributeCount(); i++) {
+                            if ("id".equals(xml.getAttributeLocalName(i))) relId = xml.getAttributeValue(i);
+                        }
+                    }
+                }
+                xml.close();
+            }
+        }
+        ZipEntry rels = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (relId != null && rels != null) {
+            try (InputStream in = zip.getInputStream(rels)) {
+                XMLStreamReader xml = XML.createXMLStreamReader(in);
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && "Relationship".equals(xml.getLocalName())
+                            && relId.equals(xml.getAttributeValue(null, "Id"))) {
+                        String target = xml.getAttributeValue(null, "Target");
+                        xml.close();
+                        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                    }
+                }
+                xml.close();
+            }
+        }
+        return "xl/worksheets/sheet1.xml";
+    }
+
+    private static void skip(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+
+    // "AB12" -> 27
+    static int columnIndex(String ref) {
+        int index = 0;
+        for (int i = 0; i < ref.length() && Character.isLetter(ref.charAt(i)); i++) {
+            index = index * 26 + (Character.toUpperCase(ref.charAt(i)) - 'A' + 1);
+        }
+        return index - 1;
+    }
+}
@@ -0,0 +1,29 @@
+package com.carsil.userapi.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector de Hibernate que cuenta las sentencias preparadas en el hilo actual.
+ * Hibernate lo instancia por su cuenta (hibernate.session_factory.statement_inspector), por eso el
+ * contador es estático; {@link JdbcStatementMetricsFilter} lo reinicia y lo lee en cada request.
+ * Solo ve lo que pasa por Hibernate: las consultas de JdbcTemplate (importación, exportación, fotos,
+ * migración, datos de prueba) y lo que corre en otro hilo (@Async) no se cuentan.
+ */
+public class JdbcStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
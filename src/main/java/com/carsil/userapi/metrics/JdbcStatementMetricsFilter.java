@@ -0,0 +1,45 @@
+package com.carsil.userapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Sentencias JDBC de Hibernate por request (carsil.http.jdbc.statements), por método y patrón de URI.
+ * Sirve para detectar N+1: un endpoint cuyo conteo crece con los datos. No incluye JdbcTemplate ni
+ * trabajo @Async (ver {@link JdbcStatementCounter}): esos endpoints marcan 0 aunque toquen la base.
+ */
+public class JdbcStatementMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public JdbcStatementMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        JdbcStatementCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("carsil.http.jdbc.statements")
+                    .description("JDBC statements prepared through Hibernate on the request thread; "
+                            + "JdbcTemplate queries and @Async work are not counted")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                    .register(registry)
+                    .record(JdbcStatementCounter.current());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.carsil.userapi.metrics;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.enums.Size;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas de dominio de productos: avance de producción, importaciones y conflictos de concurrencia.
+ */
+@Component
+public class ProductMetrics {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    /** Ticks de avance recibidos; source = single, batch, coalesced o sizes. */
+    public void progressTicks(String source, int count) {
+        if (count <= 0) return;
+        registry.counter("carsil.progress.ticks", "source", source).increment(count);
+    }
+
+    /** addMade rechazado; la razón sale del estado del producto, no del mensaje de la excepción. */
+    public void progressRejected(Product p, int delta) {
+        registry.counter("carsil.progress.rejections", "reason", rejectionReason(p, delta)).increment();
+    }
+
+    /** Avance por talla rechazado; si la talla está bien la razón es la del total. */
+    public void progressRejected(Product p, Size size, int delta) {
+        registry.counter("carsil.progress.rejections", "reason", rejectionReason(p, size, delta)).increment();
+    }
+
+    /** Filas de una importación masiva; outcome = inserted, duplicate o rejected. */
+    public void imported(String outcome, long count) {
+        if (count <= 0) return;
+        registry.counter("carsil.products.imported", "outcome", outcome).increment(count);
+    }
+
+    /** Conflicto de @Version en una operación con reintento; outcome = retried o exhausted. */
+    public void optimisticConflict(String operation, String outcome) {
+        registry.counter("carsil.optimistic.conflicts", "operation", operation, "outcome", outcome).increment();
+    }
+
+    static String rejectionReason(Product p, int delta) {
+        if (p.getQuantity() == null) return "quantity_not_set";
+        int made = p.getQuantityMade() == null ? 0 : p.getQuantityMade();
+        long next = (long) made + delta;
+        if (next < 0) return "negative";
+        if (next > p.getQuantity()) return "exceeds_quantity";
+        return "other";
+    }
+
+    static String rejectionReason(Product p, Size size, int delta) {
+        int units = p.getSizeQuantities() == null ? 0 : p.getSizeQuantities().get(size);
+        if (units == 0) return "size_not_in_product";
+        long next = (long) (p.getSizeMade() == null ? 0 : p.getSizeMade().get(size)) + delta;
+        if (next < 0) return "size_negative";
+        if (next > units) return "size_exceeds_quantity";
+        return rejectionReason(p, delta);
+    }
+}
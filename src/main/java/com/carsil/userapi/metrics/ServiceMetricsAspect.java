@@ -0,0 +1,71 @@
+package com.carsil.userapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timer por método público de los servicios (carsil.service.method), con la excepción como tag
+ * ("none" si terminó bien). El conteo del timer sirve de contador de llamadas. Los timers se guardan
+ * por método y resultado: cada llamada no vuelve a armar tags ni a buscar en el registro.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final ConcurrentHashMap<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.carsil.userapi.service..*(..))")
+    public Object time(ProceedingJoinPoint pjp) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        Class<?> exception = null;
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass();
+            throw t;
+        } finally {
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            MethodTimers t = timers.get(method);
+            if (t == null) t = timers.computeIfAbsent(method, m -> new MethodTimers(pjp.getSignature()));
+            sample.stop(exception == null ? t.succeeded : t.failed(exception));
+        }
+    }
+
+    private final class MethodTimers {
+        final String type;
+        final String name;
+        final Timer succeeded;
+        final ConcurrentHashMap<Class<?>, Timer> failed = new ConcurrentHashMap<>();
+
+        MethodTimers(Signature signature) {
+            type = signature.getDeclaringType().getSimpleName();
+            name = signature.getName();
+            succeeded = timer("none");
+        }
+
+        Timer failed(Class<?> exception) {
+            return failed.computeIfAbsent(exception, e -> timer(e.getSimpleName()));
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder("carsil.service.method")
+                    .tag("class", type)
+                    .tag("method", name)
+                    .tag("exception", exception)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.carsil.userapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Duración de cada transacción física (carsil.transaction), desde el begin hasta el commit o rollback.
+ * Boot registra este listener en el transaction manager; las transacciones que solo participan en
+ * una existente no pasan por aquí.
+ */
+@Component
+public class TransactionMetrics implements TransactionExecutionListener {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // La misma TransactionExecution llega al begin y al commit/rollback
+    private final Map<TransactionExecution, Timer.Sample> running = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) running.put(transaction, Timer.start(registry));
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        stop(transaction, commitFailure == null ? "commit" : "commit_failed");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        stop(transaction, "rollback");
+    }
+
+    private void stop(TransactionExecution transaction, String outcome) {
+        Timer.Sample sample = running.remove(transaction);
+        if (sample == null) return;
+        sample.stop(Timer.builder("carsil.transaction")
+                .tag("name", shortName(transaction.getTransactionName()))
+                .tag("read_only", String.valueOf(transaction.isReadOnly()))
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    // "com.carsil.userapi.service.ProductService.create" -> "ProductService.create"
+    private static String shortName(String name) {
+        if (name == null || name.isEmpty()) return "unnamed";
+        int method = name.lastIndexOf('.');
+        int type = method > 0 ? name.lastIndexOf('.', method - 1) : -1;
+        return name.substring(type + 1);
+    }
+}
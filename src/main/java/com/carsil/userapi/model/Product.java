@@ -2,24 +2,26 @@ package com.carsil.userapi.model;
 
 import com.carsil.userapi.model.enums.Brand;
 import com.carsil.userapi.model.enums.ProductionStatus;
+import com.carsil.userapi.model.enums.Size;
 import com.carsil.userapi.model.enums.StoppageReason;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.Map;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 
 @Entity
 @Table(
         name = "carsil_product",
-        uniqueConstraints = @UniqueConstraint(name = "uk_carsil_product_op", columnNames = "op")
+        uniqueConstraints = @UniqueConstraint(name = "uk_carsil_product_op", columnNames = "op"),
+        indexes = @Index(name = "idx_carsil_product_plant_entry_date", columnList = "plantEntryDate")
 )
 @Getter
 @Setter
@@ -35,6 +37,12 @@ public class Product {
     @EqualsAndHashCode.Include
     private Long id;
 
+    // Bloqueo optimista: cada UPDATE de la entidad compara y sube la versión. El default 0 llena las
+    // filas que ya existían cuando se agrega la columna
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @NotNull
     @Column(nullable = false, precision = 18, scale = 4)
     private BigDecimal price;
@@ -78,11 +86,19 @@ public class Product {
     @Column
     private String description;
 
-    @ElementCollection
-    @CollectionTable(name = "product_size_quantities", joinColumns = @JoinColumn(name = "product_id"))
-    @MapKeyColumn(name = "size")
-    @Column(name = "units")
-    private Map<String, Integer> sizeQuantities = new HashMap<>();
+    // Unidades por talla en una sola columna (antes una fila por talla en product_size_quantities)
+    @Convert(converter = SizeQuantitiesConverter.class)
+    @Column(name = "size_units", length = SizeQuantities.MAX_PACKED_LENGTH)
+    @Builder.Default
+    private SizeQuantities sizeQuantities = new SizeQuantities();
+
+    // Unidades hechas por talla, mismo formato; solo cambia con addMade(Size, int). Lo que se avanzó sin
+    // talla queda solo en quantityMade, por eso la suma de esta columna puede ser menor
+    @Convert(converter = SizeQuantitiesConverter.class)
+    @Column(name = "size_made", length = SizeQuantities.MAX_PACKED_LENGTH)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Builder.Default
+    private SizeQuantities sizeMade = new SizeQuantities();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
@@ -91,11 +107,16 @@ public class Product {
 
     @PrePersist
     private void validateOnCreate() {
+        validateForCreate();
+    }
+
+    /** Reglas de creación (suma de tallas = cantidad); también la usa la importación, que inserta por JDBC. */
+    public void validateForCreate() {
         // Normalización inline
-        if (sizeQuantities == null) sizeQuantities = new java.util.HashMap<>();
-        sizeQuantities.replaceAll((k, v) -> v == null ? 0 : Math.max(0, v));
+        if (sizeQuantities == null) sizeQuantities = new SizeQuantities();
+        sizeQuantities.clampNegatives();
 
-        int sum = sizeQuantities.values().stream().mapToInt(Integer::intValue).sum();
+        int sum = sizeQuantities.total();
         boolean hasSizes = sum > 0;
 
         if (quantity == null || quantity == 0) {
@@ -124,6 +145,14 @@ public class Product {
         if (quantityMade < 0 || quantityMade > quantity) {
             throw new IllegalArgumentException("quantityMade must be between 0 and quantity");
         }
+        // Un PUT/PATCH de tallas no puede dejar una talla con menos unidades que las ya hechas
+        if (sizeMade != null && sizeQuantities != null) {
+            sizeMade.forEach((size, made) -> {
+                if (made > sizeQuantities.get(size)) {
+                    throw new IllegalArgumentException("Size " + size.getLabel() + " already has " + made + " units made");
+                }
+            });
+        }
     }
 
     @NotNull
@@ -182,6 +211,9 @@ public class Product {
         int newMade = base + delta;
         if (newMade < 0) throw new IllegalArgumentException("quantityMade cannot be negative");
         if (newMade > quantity) throw new IllegalArgumentException("quantityMade cannot exceed total quantity");
+        if (sizeMade != null && newMade < sizeMade.total()) {
+            throw new IllegalArgumentException("quantityMade cannot be below the units made by size");
+        }
 
         this.quantityMade = newMade;
 
@@ -191,6 +223,31 @@ public class Product {
         }
     }
 
+    /**
+     * Avance de una talla: suma al contador de la talla y, por {@link #addMade(int)}, a quantityMade, missing
+     * y samTotal. Si algo no cuadra lanza la excepción sin haber cambiado nada.
+     */
+    public void addMade(Size size, int delta) {
+        if (delta == 0) return;
+        int units = sizeQuantities == null ? 0 : sizeQuantities.get(size);
+        if (units == 0) throw new IllegalArgumentException("Product has no units of size " + size.getLabel());
+        if (sizeMade == null) sizeMade = new SizeQuantities();
+
+        int made = sizeMade.get(size) + delta;
+        if (made < 0) throw new IllegalArgumentException("Units made of size " + size.getLabel() + " cannot be negative");
+        if (made > units) {
+            throw new IllegalArgumentException("Units made of size " + size.getLabel() + " cannot exceed its " + units + " units");
+        }
+        // La talla va primero porque addMade(int) compara contra la suma por talla; si falla se deshace
+        sizeMade.set(size, made);
+        try {
+            addMade(delta);
+        } catch (RuntimeException e) {
+            sizeMade.set(size, made - delta);
+            throw e;
+        }
+    }
+
     @Transient
     public Double getDeliveryPercentage() {
         if (quantity == null || quantity == 0 || quantityMade == null) {
@@ -201,9 +258,12 @@ public class Product {
 
     @Transient
     public BigDecimal getLoadDays() {
-        Integer samTotalMin = this.samTotal;
-        Integer people = (team != null ? team.getNumPersons() : null);
+        return loadDaysFor(this.samTotal == null ? null : this.samTotal.longValue(),
+                team != null ? team.getNumPersons() : null);
+    }
 
+    // minutos SAM -> días de carga: /60 min, /9 h de jornada, /personas, * 1.35 de eficiencia
+    public static BigDecimal loadDaysFor(Long samTotalMin, Integer people) {
         if (samTotalMin == null || samTotalMin <= 0) return BigDecimal.ZERO;
         if (people == null || people <= 0) return BigDecimal.ZERO;
 
@@ -0,0 +1,149 @@
+package com.carsil.userapi.model;
+
+import com.carsil.userapi.model.enums.Size;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Unidades por talla: un int por cada {@link Size}, en el orden del enum. Una talla en 0 es una talla que
+ * el producto no lleva. En JSON sigue siendo el objeto de siempre ({"S": 10, "M": 20}) y en la base es
+ * una sola columna binaria (ver {@link #pack()}).
+ */
+public final class SizeQuantities {
+
+    private static final Size[] SIZES = Size.values();
+
+    // Talla de cada bit de la máscara; null en los bits libres
+    private static final Size[] BY_BIT = new Size[16];
+
+    static {
+        for (Size size : SIZES) {
+            if (size.getBit() < 0 || size.getBit() >= BY_BIT.length || BY_BIT[size.getBit()] != null) {
+                throw new IllegalStateException("Size " + size + " has an invalid or repeated bit " + size.getBit());
+            }
+            BY_BIT[size.getBit()] = size;
+        }
+    }
+
+    // Largo de la columna con las 14 tallas; la máscara de 2 bytes alcanza hasta 16
+    public static final int MAX_PACKED_LENGTH = 2 + 4 * 14;
+
+    private final int[] units = new int[SIZES.length];
+
+    public SizeQuantities() {
+    }
+
+    /** Las claves se leen con {@link Size#CODEC} (etiqueta o nombre); una talla desconocida es un error. */
+    @JsonCreator
+    public static SizeQuantities of(Map<String, Integer> bySize) {
+        SizeQuantities q = new SizeQuantities();
+        if (bySize == null) return q;
+        bySize.forEach((size, units) -> q.set(Size.fromLabel(size), units == null ? 0 : units));
+        return q;
+    }
+
+    public int get(Size size) {
+        return units[size.ordinal()];
+    }
+
+    public void set(Size size, int units) {
+        this.units[size.ordinal()] = units;
+    }
+
+    public int total() {
+        int sum = 0;
+        for (int u : units) sum += u;
+        return sum;
+    }
+
+    public boolean isEmpty() {
+        for (int u : units) if (u != 0) return false;
+        return true;
+    }
+
+    /** Recorre solo las tallas que tiene el producto, en el orden del enum. */
+    public void forEach(ObjIntConsumer<Size> action) {
+        for (int i = 0; i < units.length; i++) {
+            if (units[i] != 0) action.accept(SIZES[i], units[i]);
+        }
+    }
+
+    // Las negativas quedan en 0 (así lo hacía la creación con el mapa)
+    void clampNegatives() {
+        for (int i = 0; i < units.length; i++) units[i] = Math.max(0, units[i]);
+    }
+
+    @JsonValue
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        forEach((size, u) -> map.put(size.getLabel(), u));
+        return map;
+    }
+
+    public SizeQuantities copy() {
+        SizeQuantities q = new SizeQuantities();
+        System.arraycopy(units, 0, q.units, 0, units.length);
+        return q;
+    }
+
+    /**
+     * Formato de la columna: máscara de 2 bytes con las tallas presentes (bit = {@link Size#getBit()}) y
+     * después un int por cada talla presente, en orden de bit. Un producto de 4 tallas ocupa 18 bytes.
+     */
+    public byte[] pack() {
+        int mask = 0, present = 0;
+        for (Size size : SIZES) {
+            if (units[size.ordinal()] != 0) {
+                mask |= 1 << size.getBit();
+                present++;
+            }
+        }
+        ByteBuffer buf = ByteBuffer.allocate(2 + 4 * present).putShort((short) mask);
+        for (int bit = 0; bit < BY_BIT.length; bit++) {
+            if ((mask & (1 << bit)) != 0) buf.putInt(units[BY_BIT[bit].ordinal()]);
+        }
+        return buf.array();
+    }
+
+    public static SizeQuantities unpack(byte[] packed) {
+        SizeQuantities q = new SizeQuantities();
+        if (packed == null || packed.length == 0) return q;
+        ByteBuffer buf = ByteBuffer.wrap(packed);
+        int mask = buf.getShort() & 0xFFFF;
+        if (Integer.bitCount(mask) * 4 != buf.remaining()) {
+            throw new IllegalArgumentException("Corrupt packed sizes (" + packed.length + " bytes)");
+        }
+        for (int bit = 0; bit < BY_BIT.length; bit++) {
+            if ((mask & (1 << bit)) == 0) continue;
+            if (BY_BIT[bit] == null) throw new IllegalArgumentException("Packed sizes use unknown bit " + bit);
+            q.units[BY_BIT[bit].ordinal()] = buf.getInt();
+        }
+        return q;
+    }
+
+    /** Bit {@link Size#getBit()} encendido por cada talla presente en una columna empacada. */
+    public static int presentMask(byte[] packed) {
+        return packed == null || packed.length < 2 ? 0 : ((packed[0] & 0xFF) << 8) | (packed[1] & 0xFF);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SizeQuantities other && Arrays.equals(units, other.units);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(units);
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -0,0 +1,19 @@
+package com.carsil.userapi.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Columna size_units; NULL (filas de antes de la columna aún sin migrar) se lee como sin tallas
+@Converter
+public class SizeQuantitiesConverter implements AttributeConverter<SizeQuantities, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(SizeQuantities sizes) {
+        return sizes == null ? null : sizes.pack();
+    }
+
+    @Override
+    public SizeQuantities convertToEntityAttribute(byte[] packed) {
+        return SizeQuantities.unpack(packed);
+    }
+}
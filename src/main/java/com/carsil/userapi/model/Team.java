@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "carsil_team")
@@ -16,6 +18,7 @@ import lombok.*;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 100)
 public class Team {
 
     @Id
@@ -23,6 +26,11 @@ public class Team {
     @EqualsAndHashCode.Include
     private Long id;
 
+    // Protege nombre, descripción y personas; la carga (applyLoad) es un UPDATE atómico que no la sube
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     @Size(max = 255, message = "The description cannot exceed 255 characters.")
     private String description;
 
@@ -34,8 +42,16 @@ public class Team {
     @Column
     private Integer numPersons;
 
+    // loadDays y samTotalSum solo se escriben con UPDATE atómico (TeamRepository.applyLoad),
+    // nunca desde el estado de la entidad.
+    @Column(updatable = false)
     private java.math.BigDecimal loadDays;
 
+    // Suma de samTotal de los productos del módulo
+    @Column(name = "sam_total_sum", updatable = false)
+    @Builder.Default
+    private Long samTotalSum = 0L;
+
     @OneToMany(mappedBy = "team", fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @com.fasterxml.jackson.annotation.JsonIgnoreProperties({"team"})
     private java.util.List<Product> products = new java.util.ArrayList<>();
@@ -43,12 +59,6 @@ public class Team {
     @Transient
     @com.fasterxml.jackson.annotation.JsonProperty("totaLoadDays")
     public java.math.BigDecimal getTotaLoadDays() {
-        if (products == null || products.isEmpty()) return java.math.BigDecimal.ZERO;
-
-        return products.stream()
-                .map(Product::getLoadDays)
-                .filter(java.util.Objects::nonNull)
-                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add)
-                .setScale(2, java.math.RoundingMode.HALF_UP);
+        return Product.loadDaysFor(samTotalSum, numPersons);
     }
 }
\ No newline at end of file
@@ -3,13 +3,13 @@ package com.carsil.userapi.model.enums;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
-import java.util.Arrays;
-
 public enum Brand {
     TENNIS("TENNIS SAS"),
     ELEDE("LINEA DIRECTA"),
     BLANK("");
 
+    public static final EnumCodec<Brand> CODEC = EnumCodec.byLabel(Brand.class, "Brand", Brand::getLabel);
+
     private final String label;
 
     Brand(String label) { this.label = label; }
@@ -21,12 +21,7 @@ public enum Brand {
 
     @JsonCreator
     public static Brand fromJson(String value) {
-        if (value == null) return null;
-        String norm = value.trim();
-        return Arrays.stream(values())
-                .filter(r -> r.label.equalsIgnoreCase(norm))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Invalid  Brand: " + value));
+        return CODEC.parse(value);
     }
 }
 
@@ -0,0 +1,160 @@
+package com.carsil.userapi.model.enums;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lectura y escritura por texto de los enums del modelo. Acepta la etiqueta o el nombre de la constante
+ * sin importar mayúsculas, tildes ni espacios alrededor ("confeccion" → CONFECCIÓN) y responde con una
+ * tabla hash precalculada: buscar no crea objetos, ni siquiera el String cuando el texto llega como
+ * char[] (así lo entrega el parser de Jackson, ver {@code EnumCodecModule}).
+ */
+public final class EnumCodec<E extends Enum<E>> {
+
+    // Plegado por carácter (mayúscula sin tilde) para Latin-1 y Latin Extended-A; lo demás solo mayúscula
+    private static final char[] FOLD = new char[0x180];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = Character.toUpperCase(base.isEmpty() ? c : base.charAt(0));
+        }
+    }
+
+    private final Class<E> type;
+    private final String description;
+    private final E[] constants;
+    private final String[] text;
+    private final Map<String, E> exact = new HashMap<>();
+    private final char[][] keys;
+    private final int[] slots;
+    private final int mask;
+
+    private EnumCodec(Class<E> type, String description, Function<E, String> label, boolean writeLabel) {
+        this.type = type;
+        this.description = description;
+        this.constants = type.getEnumConstants();
+        this.text = new String[constants.length];
+        // Dos claves (etiqueta y nombre) por constante; la tabla queda a menos de la mitad
+        int capacity = Integer.highestOneBit(Math.max(constants.length, 2) * 8);
+        this.keys = new char[capacity][];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (E e : constants) {
+            text[e.ordinal()] = writeLabel ? label.apply(e) : e.name();
+            put(label.apply(e), e);
+            put(e.name(), e);
+            exact.putIfAbsent(label.apply(e), e);
+            exact.putIfAbsent(e.name(), e);
+        }
+    }
+
+    /** Se escribe con su etiqueta. */
+    public static <E extends Enum<E>> EnumCodec<E> byLabel(Class<E> type, String description, Function<E, String> label) {
+        return new EnumCodec<>(type, description, label, true);
+    }
+
+    /** Se escribe con el nombre de la constante (el JSON de siempre); la etiqueta solo se acepta al leer. */
+    public static <E extends Enum<E>> EnumCodec<E> byName(Class<E> type, String description, Function<E, String> label) {
+        return new EnumCodec<>(type, description, label, false);
+    }
+
+    /** Todos los enums de {@code model.enums}. */
+    public static List<EnumCodec<?>> all() {
+        return List.of(Brand.CODEC, ProductionStatus.CODEC, StoppageReason.CODEC, Size.CODEC);
+    }
+
+    public Class<E> type() {
+        return type;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public String text(E value) {
+        return value == null ? null : text[value.ordinal()];
+    }
+
+    /** null si el texto es null; IllegalArgumentException si no corresponde a ninguna constante. */
+    public E parse(String value) {
+        if (value == null) return null;
+        // Lo normal es que llegue la etiqueta exacta: el hash del String ya está calculado o es intrínseco
+        E e = exact.get(value);
+        if (e == null) e = find(value);
+        if (e == null) throw new IllegalArgumentException("Invalid " + description + ": " + value);
+        return e;
+    }
+
+    /** null si no corresponde a ninguna constante. */
+    public E find(CharSequence value) {
+        int from = 0, to = value.length();
+        while (from < to && value.charAt(from) <= ' ') from++;
+        while (to > from && value.charAt(to - 1) <= ' ') to--;
+        int n = to - from;
+        int hash = n == 0 ? 0 : hash(n, fold(value.charAt(from)), fold(value.charAt(from + n / 2)), fold(value.charAt(to - 1)));
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            char[] key = keys[slot];
+            if (key.length != to - from) continue;
+            int i = 0;
+            while (i < key.length && key[i] == fold(value.charAt(from + i))) i++;
+            if (i == key.length) return constants[slots[slot] - 1];
+        }
+        return null;
+    }
+
+    /** Igual que {@link #find(CharSequence)} sobre {@code buffer[offset, offset + length)}. */
+    public E find(char[] buffer, int offset, int length) {
+        int from = offset, to = offset + length;
+        while (from < to && buffer[from] <= ' ') from++;
+        while (to > from && buffer[to - 1] <= ' ') to--;
+        int n = to - from;
+        int hash = n == 0 ? 0 : hash(n, fold(buffer[from]), fold(buffer[from + n / 2]), fold(buffer[to - 1]));
+        for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            char[] key = keys[slot];
+            if (key.length != to - from) continue;
+            int i = 0;
+            while (i < key.length && key[i] == fold(buffer[from + i])) i++;
+            if (i == key.length) return constants[slots[slot] - 1];
+        }
+        return null;
+    }
+
+    private void put(String text, E e) {
+        String trimmed = text.trim();
+        char[] key = new char[trimmed.length()];
+        for (int i = 0; i < key.length; i++) key[i] = fold(trimmed.charAt(i));
+        int n = key.length;
+        int slot = (n == 0 ? 0 : hash(n, key[0], key[n / 2], key[n - 1])) & mask;
+        while (slots[slot] != 0) {
+            if (Arrays.equals(keys[slot], key)) {
+                if (slots[slot] - 1 != e.ordinal()) {
+                    throw new IllegalStateException(type.getSimpleName() + ": '" + text + "' matches two constants");
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        slots[slot] = e.ordinal() + 1;
+    }
+
+    private static char fold(char c) {
+        return c < FOLD.length ? FOLD[c] : Character.toUpperCase(c);
+    }
+
+    // Largo y tres caracteres bastan para separar unas pocas etiquetas; la comparación completa va después
+    private static int hash(int length, char first, char middle, char last) {
+        int h = ((length * 31 + first) * 31 + middle) * 31 + last;
+        return h ^ (h >>> 7);
+    }
+
+    @Override
+    public String toString() {
+        return "EnumCodec[" + type.getSimpleName() + "]";
+    }
+}
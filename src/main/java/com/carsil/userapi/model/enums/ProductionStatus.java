@@ -5,9 +5,15 @@ public enum ProductionStatus {
     ASIGNADO("ASIGNADO"),
     CONFECCION("CONFECCIÓN");
 
+    // En JSON y en la base viaja por nombre (CONFECCION); al leer también se acepta la etiqueta
+    public static final EnumCodec<ProductionStatus> CODEC =
+            EnumCodec.byName(ProductionStatus.class, "status", ProductionStatus::getLabel);
+
     private final String label;
     ProductionStatus(String label) { this.label = label; }
 
     public String getLabel() { return label; }
 
+    public static ProductionStatus fromLabel(String label) { return CODEC.parse(label); }
+
 }
@@ -1,11 +1,18 @@
 package com.carsil.userapi.model.enums;
 
+// El bit es la posición de la talla en la columna size_units (SizeQuantities.pack) y está guardado en la
+// base: no se cambia ni se reutiliza. Una talla nueva toma el siguiente bit libre (hasta 15).
 public enum Size {
-    T2("2"), T4("4"), T6("6"), T8("8"), T10("10"), T12("12"), T14("14"), T16("16"),
-    XS("XS"), S("S"), M("M"), L("L"), XL("XL"), XXL("XXL");
+    T2("2", 0), T4("4", 1), T6("6", 2), T8("8", 3), T10("10", 4), T12("12", 5), T14("14", 6), T16("16", 7),
+    XS("XS", 8), S("S", 9), M("M", 10), L("L", 11), XL("XL", 12), XXL("XXL", 13);
+
+    public static final EnumCodec<Size> CODEC = EnumCodec.byLabel(Size.class, "size", Size::getLabel);
 
     private final String label;
-    Size(String label) { this.label = label; }
+    private final int bit;
+    Size(String label, int bit) { this.label = label; this.bit = bit; }
     public String getLabel() { return label; }
-}
+    public int getBit() { return bit; }
 
+    public static Size fromLabel(String label) { return CODEC.parse(label); }
+}
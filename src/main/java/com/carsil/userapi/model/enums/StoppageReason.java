@@ -3,8 +3,6 @@ package com.carsil.userapi.model.enums;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
-import java.util.Arrays;
-
 public enum StoppageReason {
     MARQUILLA_TALLA("MARQUILLA TALLA"),
     COMPOSICION("COMPOSICION"),
@@ -16,6 +14,9 @@ public enum StoppageReason {
     FICHA("FICHA"),
     SESGO("SESGO");
 
+    public static final EnumCodec<StoppageReason> CODEC =
+            EnumCodec.byLabel(StoppageReason.class, "Descripción Paro", StoppageReason::getLabel);
+
     private final String label;
     StoppageReason(String label) { this.label = label; }
 
@@ -24,12 +25,7 @@ public enum StoppageReason {
 
     @JsonCreator
     public static StoppageReason fromJson(String value) {
-        if (value == null) return null;
-        String norm = value.trim();
-        return Arrays.stream(values())
-                .filter(r -> r.label.equalsIgnoreCase(norm))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Descripción Paro: " + value));
+        return CODEC.parse(value);
     }
 
     public static StoppageReason fromLabel(String label) { return fromJson(label); }
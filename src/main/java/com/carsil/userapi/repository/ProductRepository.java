@@ -1,20 +1,41 @@
 package com.carsil.userapi.repository;
 
+import com.carsil.userapi.dto.ProductSummary;
+import com.carsil.userapi.dto.TeamSummary;
 import com.carsil.userapi.model.Product;
 import com.carsil.userapi.model.Team;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Los listados traen el team en la misma consulta para evitar N+1 al serializar (las tallas son una columna)
+    @Override
+    @EntityGraph(attributePaths = "team")
+    List<Product> findAll();
+
+    // El team viene en el mismo SELECT: recalcular la carga no cuesta otra consulta a carsil_team
+    @Override
+    @EntityGraph(attributePaths = "team")
+    Optional<Product> findById(Long id);
+
+    @EntityGraph(attributePaths = "team")
     @Query("""
         SELECT p FROM Product p
         WHERE LOWER(p.op)        LIKE LOWER(CONCAT('%', :q, '%'))
@@ -26,11 +47,98 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     boolean existsByOp(String op);
     boolean existsByOpAndIdNot(String op, Long id);
 
+    // Con paginación no se hace fetch de colecciones (paginaría en memoria); las tallas vienen en la fila
+    @EntityGraph(attributePaths = "team")
     Page<Product> findByPlantEntryDateBetween(LocalDate startDate, LocalDate endDate, Pageable pageable);
 
+    @EntityGraph(attributePaths = "team")
     List<Product> findByPlantEntryDateBetween(LocalDate startDate, LocalDate endDate);
 
+    @EntityGraph(attributePaths = "team")
     List<Product> findByTeamId(Long teamId);
 
+    @EntityGraph(attributePaths = "team")
     List<Product> findByOp(String op);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "team")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    // Keyset: siguiente bloque de productos con id > after, sin OFFSET
+    @EntityGraph(attributePaths = "team")
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // El fetch size solo acota la memoria en MySQL con useCursorFetch=true en la URL (ver dbConnections.txt)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @EntityGraph(attributePaths = "team")
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAll();
+
+    // Resúmenes del tablero: una fila por grupo; from/to (fecha de ingreso a planta) son opcionales
+
+    @Query("""
+            SELECT p.status AS key,
+                   COUNT(p) AS products,
+                   COALESCE(SUM(p.quantity), 0) AS quantity,
+                   COALESCE(SUM(p.quantityMade), 0) AS quantityMade,
+                   COALESCE(SUM(p.missing), 0) AS missing,
+                   COALESCE(SUM(p.samTotal), 0) AS samTotal,
+                   COALESCE(SUM(p.price * p.quantity), 0) AS totalPrice
+            FROM Product p
+            WHERE (:from IS NULL OR p.plantEntryDate >= :from)
+              AND (:to IS NULL OR p.plantEntryDate <= :to)
+            GROUP BY p.status
+            ORDER BY p.status
+            """)
+    List<ProductSummary> summarizeByStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT p.brand AS key,
+                   COUNT(p) AS products,
+                   COALESCE(SUM(p.quantity), 0) AS quantity,
+                   COALESCE(SUM(p.quantityMade), 0) AS quantityMade,
+                   COALESCE(SUM(p.missing), 0) AS missing,
+                   COALESCE(SUM(p.samTotal), 0) AS samTotal,
+                   COALESCE(SUM(p.price * p.quantity), 0) AS totalPrice
+            FROM Product p
+            WHERE (:from IS NULL OR p.plantEntryDate >= :from)
+              AND (:to IS NULL OR p.plantEntryDate <= :to)
+            GROUP BY p.brand
+            ORDER BY p.brand
+            """)
+    List<ProductSummary> summarizeByBrand(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT p.campaign AS key,
+                   COUNT(p) AS products,
+                   COALESCE(SUM(p.quantity), 0) AS quantity,
+                   COALESCE(SUM(p.quantityMade), 0) AS quantityMade,
+                   COALESCE(SUM(p.missing), 0) AS missing,
+                   COALESCE(SUM(p.samTotal), 0) AS samTotal,
+                   COALESCE(SUM(p.price * p.quantity), 0) AS totalPrice
+            FROM Product p
+            WHERE (:from IS NULL OR p.plantEntryDate >= :from)
+              AND (:to IS NULL OR p.plantEntryDate <= :to)
+            GROUP BY p.campaign
+            ORDER BY p.campaign
+            """)
+    List<ProductSummary> summarizeByCampaign(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT t.id AS teamId, t.name AS key,
+                   COUNT(p) AS products,
+                   COALESCE(SUM(p.quantity), 0) AS quantity,
+                   COALESCE(SUM(p.quantityMade), 0) AS quantityMade,
+                   COALESCE(SUM(p.missing), 0) AS missing,
+                   COALESCE(SUM(p.samTotal), 0) AS samTotal,
+                   COALESCE(SUM(p.price * p.quantity), 0) AS totalPrice
+            FROM Product p LEFT JOIN p.team t
+            WHERE (:from IS NULL OR p.plantEntryDate >= :from)
+              AND (:to IS NULL OR p.plantEntryDate <= :to)
+            GROUP BY t.id, t.name
+            ORDER BY t.id, t.name
+            """)
+    List<TeamSummary> summarizeByTeam(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -2,11 +2,31 @@ package com.carsil.userapi.repository;
 
 import com.carsil.userapi.model.Team;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("""
+        UPDATE Team t SET t.samTotalSum = COALESCE(t.samTotalSum, 0) + :delta,
+                          t.loadDays = COALESCE(:loadDays, t.loadDays)
+        WHERE t.id = :id
+    """)
+    int applyLoad(@Param("id") Long id, @Param("delta") long delta, @Param("loadDays") BigDecimal loadDays);
+
+    @Modifying
+    @Query("""
+        UPDATE Team t SET t.samTotalSum =
+            (SELECT COALESCE(SUM(p.samTotal), 0) FROM Product p WHERE p.team = t)
+        WHERE t.samTotalSum IS NULL
+    """)
+    int backfillSamTotals();
+}
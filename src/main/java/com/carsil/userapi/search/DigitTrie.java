@@ -0,0 +1,151 @@
+package com.carsil.userapi.search;
+
+import java.util.*;
+
+/**
+ * Trie de dígitos en arreglos planos: cada nodo ocupa 10 enteros (un hijo por dígito) y el largo del
+ * término vivo más corto debajo de él, para podar ramas vacías o sin nada del largo buscado. Los ids
+ * de producto viven solo en los nodos terminales. No es thread-safe; {@link ProductAutocomplete} serializa el acceso.
+ */
+class DigitTrie {
+
+    private static final int ROOT = 0;
+
+    // children[node * 10 + digit]; 0 significa "sin hijo" (la raíz nunca es hija)
+    private int[] children = new int[10 * 256];
+    // Largo (desde la raíz) del término vivo más corto en el subárbol; 0 si no queda ninguno
+    private int[] shortestBelow = new int[256];
+    private int nodes = 1;
+
+    // Largo del término más largo que se agregó (no baja al quitarlo); tamaño del camino en complete
+    private int longest;
+
+    // ids del término que termina en cada nodo; null si no termina ninguno
+    @SuppressWarnings("unchecked")
+    private Set<Long>[] idsByNode = new Set[256];
+
+    static boolean isDigits(String value) {
+        if (value == null || value.isEmpty()) return false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    void add(String value, long productId) {
+        if (!isDigits(value)) return;
+        int node = ROOT;
+        int[] path = new int[value.length() + 1];
+        for (int i = 0; i < value.length(); i++) {
+            path[i] = node;
+            int slot = node * 10 + (value.charAt(i) - '0');
+            if (children[slot] == 0) children[slot] = newNode();
+            node = children[slot];
+        }
+        path[value.length()] = node;
+        longest = Math.max(longest, value.length());
+
+        Set<Long> ids = idsByNode[node];
+        if (ids == null) ids = idsByNode[node] = new LinkedHashSet<>();
+        if (ids.add(productId) && ids.size() == 1) {
+            for (int n : path) {
+                if (shortestBelow[n] == 0 || shortestBelow[n] > value.length()) shortestBelow[n] = value.length();
+            }
+        }
+    }
+
+    void remove(String value, long productId) {
+        if (!isDigits(value)) return;
+        int node = ROOT;
+        int[] path = new int[value.length() + 1];
+        for (int i = 0; i < value.length(); i++) {
+            path[i] = node;
+            node = children[node * 10 + (value.charAt(i) - '0')];
+            if (node == 0) return;
+        }
+        path[value.length()] = node;
+
+        Set<Long> ids = idsByNode[node];
+        if (ids == null || !ids.remove(productId)) return;
+        if (ids.isEmpty()) {
+            idsByNode[node] = null;
+            // De abajo hacia arriba: cada nodo toma el mínimo de sus hijos, ya recalculados
+            for (int depth = value.length(); depth >= 0; depth--) {
+                int n = path[depth];
+                int shortest = 0;
+                if (idsByNode[n] != null) {
+                    shortest = depth;
+                } else {
+                    for (int d = 0; d < 10; d++) {
+                        int child = children[n * 10 + d];
+                        if (child != 0 && shortestBelow[child] != 0
+                                && (shortest == 0 || shortestBelow[child] < shortest)) {
+                            shortest = shortestBelow[child];
+                        }
+                    }
+                }
+                shortestBelow[n] = shortest;
+            }
+        }
+    }
+
+    /**
+     * Hasta {@code limit} términos que empiezan por prefix, los más cortos primero y luego en orden
+     * numérico. Un recorrido en profundidad por cada largo que existe bajo el prefijo, de menor a mayor,
+     * sobre un solo {@code char[]}: cada pasada solo baja por ramas con algún término de ese largo o menos,
+     * y solo se arma un String por término devuelto.
+     */
+    List<Term> complete(String prefix, int limit) {
+        List<Term> result = new ArrayList<>();
+        if (limit <= 0 || (!prefix.isEmpty() && !isDigits(prefix))) return result;
+
+        int start = ROOT;
+        for (int i = 0; i < prefix.length(); i++) {
+            start = children[start * 10 + (prefix.charAt(i) - '0')];
+            if (start == 0) return result;
+        }
+
+        char[] path = Arrays.copyOf(prefix.toCharArray(), Math.max(longest, prefix.length()));
+        int length = shortestBelow[start];
+        while (length != 0 && result.size() < limit) {
+            length = collect(start, prefix.length(), length, path, result, limit);
+        }
+        return result;
+    }
+
+    // Agrega los términos de largo exacto length bajo node; devuelve el siguiente largo que hay debajo (0 si ninguno)
+    private int collect(int node, int depth, int length, char[] path, List<Term> result, int limit) {
+        if (depth == length && idsByNode[node] != null) {
+            result.add(new Term(new String(path, 0, length), idsByNode[node]));
+        }
+        int next = 0;
+        for (int d = 0; d < 10 && result.size() < limit; d++) {
+            int child = children[node * 10 + d];
+            if (child == 0 || shortestBelow[child] == 0) continue;
+            int childNext = shortestBelow[child];
+            if (childNext <= length) {
+                path[depth] = (char) ('0' + d);
+                childNext = collect(child, depth + 1, length, path, result, limit);
+            }
+            if (childNext != 0 && (next == 0 || childNext < next)) next = childNext;
+        }
+        return next;
+    }
+
+    int nodeCount() {
+        return nodes;
+    }
+
+    private int newNode() {
+        if (nodes == shortestBelow.length) {
+            shortestBelow = Arrays.copyOf(shortestBelow, nodes * 2);
+            children = Arrays.copyOf(children, nodes * 2 * 10);
+            idsByNode = Arrays.copyOf(idsByNode, nodes * 2);
+        }
+        return nodes++;
+    }
+
+    record Term(String value, Collection<Long> productIds) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.carsil.userapi.search;
+
+import com.carsil.userapi.dto.AutocompleteSuggestion;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocompletado por prefijo de OP y referencia sobre dos {@link DigitTrie} en memoria.
+ * Se carga al arrancar y se actualiza con {@link ProductChangedEvent} después de cada commit.
+ */
+@Slf4j
+@Component
+public class ProductAutocomplete {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int MAX_IDS_PER_SUGGESTION = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final DigitTrie ops = new DigitTrie();
+    private final DigitTrie references = new DigitTrie();
+
+    // último op/referencia indexados por producto, para poder retirarlos al cambiar
+    private final Map<Long, String[]> indexed = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        JdbcTemplate cursor = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        cursor.setFetchSize(1000);
+        int loaded;
+        lock.writeLock().lock();
+        try {
+            cursor.query("SELECT id, op, reference FROM carsil_product",
+                    rs -> { put(rs.getLong("id"), rs.getString("op"), rs.getString("reference")); });
+            loaded = indexed.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Autocomplete tries loaded: {} products in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product p = event.getProduct();
+        if (p == null || p.getId() == null) return;
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == ProductChangedEvent.Type.DELETED) {
+                drop(p.getId());
+            } else {
+                put(p.getId(), p.getOp(), p.getReference());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sugerencias de OP y referencia que empiezan por prefix: primero las más cortas (más cercanas a
+     * lo tecleado) y, a igual longitud, OP antes que referencia.
+     */
+    public List<AutocompleteSuggestion> suggest(String prefix, int limit) {
+        String p = prefix == null ? "" : prefix.trim();
+        int k = Math.max(0, Math.min(limit, MAX_LIMIT));
+        List<AutocompleteSuggestion> merged = new ArrayList<>(2 * k);
+        lock.readLock().lock();
+        try {
+            for (DigitTrie.Term t : ops.complete(p, k)) merged.add(suggestion(t, "op"));
+            for (DigitTrie.Term t : references.complete(p, k)) merged.add(suggestion(t, "reference"));
+        } finally {
+            lock.readLock().unlock();
+        }
+        merged.sort(Comparator.<AutocompleteSuggestion>comparingInt(s -> s.getValue().length())
+                .thenComparing(s -> s.getField().equals("op") ? 0 : 1)
+                .thenComparing(AutocompleteSuggestion::getValue));
+        return merged.size() > k ? merged.subList(0, k) : merged;
+    }
+
+    private static AutocompleteSuggestion suggestion(DigitTrie.Term t, String field) {
+        List<Long> ids = new ArrayList<>(Math.min(t.productIds().size(), MAX_IDS_PER_SUGGESTION));
+        for (Long id : t.productIds()) {
+            if (ids.size() == MAX_IDS_PER_SUGGESTION) break;
+            ids.add(id);
+        }
+        return new AutocompleteSuggestion(t.value(), field, t.productIds().size(), ids);
+    }
+
+    private void put(long id, String op, String reference) {
+        String[] previous = indexed.get(id);
+        if (previous != null && Objects.equals(previous[0], op) && Objects.equals(previous[1], reference)) return;
+        drop(id);
+        ops.add(op, id);
+        references.add(reference, id);
+        indexed.put(id, new String[]{op, reference});
+    }
+
+    private void drop(long id) {
+        String[] previous = indexed.remove(id);
+        if (previous == null) return;
+        ops.remove(previous[0], id);
+        references.remove(previous[1], id);
+    }
+}
@@ -0,0 +1,271 @@
+package com.carsil.userapi.search;
+
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.enums.Brand;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas en memoria sobre op, referencia, campaña, marca y descripción.
+ * Una búsqueda por subcadena intersecta las listas de los trigramas de la consulta y solo verifica
+ * esos candidatos, en lugar de recorrer la tabla con LIKE '%q%'.
+ * Se construye al arrancar y se mantiene con {@link ProductChangedEvent} después de cada commit.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    // op, reference, campaign, brand, description
+    private static final int[] FIELD_WEIGHTS = {50, 30, 20, 10, 5};
+
+    private static final int MIN_DEAD_FOR_COMPACTION = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Cada versión indexada de un producto es un "doc"; al reindexar se crea uno nuevo y el viejo muere
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private long[] productByDoc = new long[1024];
+    private String[][] fieldsByDoc = new String[1024][];
+    private final BitSet live = new BitSet();
+    private int nextDoc;
+    private int deadDocs;
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        JdbcTemplate cursor = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        cursor.setFetchSize(1000);
+        int indexed;
+        lock.writeLock().lock();
+        try {
+            clear();
+            cursor.query("SELECT id, op, reference, campaign, brand, description FROM carsil_product",
+                    rs -> {
+                        String brand = rs.getString("brand");
+                        put(rs.getLong("id"), fields(rs.getString("op"), rs.getString("reference"),
+                                rs.getString("campaign"), brand == null ? null : Brand.valueOf(brand),
+                                rs.getString("description")));
+                    });
+            indexed = docByProduct.size();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product search index built: {} products in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product p = event.getProduct();
+        if (p == null || p.getId() == null) return;
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(p.getId());
+        } else {
+            index(p);
+        }
+    }
+
+    public void index(Product p) {
+        String[] fields = fields(p.getOp(), p.getReference(), p.getCampaign(), p.getBrand(), p.getDescription());
+        lock.writeLock().lock();
+        try {
+            put(p.getId(), fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByProduct.remove(productId);
+            if (doc != null) kill(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca la subcadena q en los campos indexados y devuelve una página de ids por relevancia:
+     * coincidencia exacta &gt; prefijo &gt; contenida, ponderada por campo (op primero).
+     */
+    public SearchHits search(String q, int offset, int limit) {
+        String query = SearchText.fold(q);
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(query);
+            int k = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+            PriorityQueue<long[]> top = new PriorityQueue<>(Comparator
+                    .<long[]>comparingLong(h -> h[0])
+                    .thenComparing(h -> h[1], Comparator.reverseOrder()));
+            int total = 0;
+            for (int doc : candidates) {
+                if (!live.get(doc)) continue;
+                int score = score(fieldsByDoc[doc], query);
+                if (score == 0) continue;
+                total++;
+                top.add(new long[]{score, productByDoc[doc]});
+                if (top.size() > k) top.poll();
+            }
+
+            List<long[]> ordered = new ArrayList<>(top);
+            ordered.sort(Comparator.<long[]>comparingLong(h -> -h[0]).thenComparingLong(h -> h[1]));
+            List<Long> ids = new ArrayList<>();
+            for (int i = offset; i < ordered.size(); i++) ids.add(ordered.get(i)[1]);
+            return new SearchHits(total, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String query) {
+        if (query.length() < 3) {
+            return live.stream().toArray();
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (long trigram : trigrams(query)) {
+            IntList list = postings.get(trigram);
+            if (list == null) return new int[0];
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.size));
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = intersect(result, size, lists.get(i));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Intersección de listas ordenadas; el resultado queda al inicio de "into"
+    private static int intersect(int[] into, int size, IntList other) {
+        int i = 0, j = 0, n = 0;
+        while (i < size && j < other.size) {
+            int a = into[i], b = other.values[j];
+            if (a == b) {
+                into[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static int score(String[] fields, String query) {
+        if (query.isEmpty()) return 1;
+        int score = 0;
+        for (int f = 0; f < fields.length; f++) {
+            int at = fields[f].indexOf(query);
+            if (at < 0) continue;
+            int weight = FIELD_WEIGHTS[f];
+            score += fields[f].length() == query.length() ? 3 * weight : at == 0 ? 2 * weight : weight;
+        }
+        return score;
+    }
+
+    private static String[] fields(String op, String reference, String campaign, Brand brand, String description) {
+        String brandText = brand == null ? "" : SearchText.fold(brand.getLabel() + " " + brand.name());
+        return new String[]{
+                SearchText.fold(op), SearchText.fold(reference), SearchText.fold(campaign),
+                brandText, SearchText.fold(description)
+        };
+    }
+
+    private void put(long productId, String[] fields) {
+        Integer existing = docByProduct.get(productId);
+        if (existing != null) {
+            if (Arrays.equals(fieldsByDoc[existing], fields)) return;
+            kill(existing);
+        }
+        int doc = nextDoc++;
+        ensureCapacity(doc);
+        productByDoc[doc] = productId;
+        fieldsByDoc[doc] = fields;
+        live.set(doc);
+        docByProduct.put(productId, doc);
+
+        Set<Long> seen = new HashSet<>();
+        for (String field : fields) {
+            for (long trigram : trigrams(field)) {
+                if (seen.add(trigram)) postings.computeIfAbsent(trigram, t -> new IntList()).add(doc);
+            }
+        }
+    }
+
+    private void kill(int doc) {
+        live.clear(doc);
+        fieldsByDoc[doc] = null;
+        deadDocs++;
+        if (deadDocs > MIN_DEAD_FOR_COMPACTION && deadDocs > docByProduct.size()) compact();
+    }
+
+    // Renumera los docs vivos y reconstruye las listas sin los muertos
+    private void compact() {
+        Map<Long, String[]> current = new LinkedHashMap<>();
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            current.put(productByDoc[doc], fieldsByDoc[doc]);
+        }
+        clear();
+        current.forEach(this::put);
+    }
+
+    private void clear() {
+        docByProduct.clear();
+        postings.clear();
+        live.clear();
+        productByDoc = new long[1024];
+        fieldsByDoc = new String[1024][];
+        nextDoc = 0;
+        deadDocs = 0;
+    }
+
+    private void ensureCapacity(int doc) {
+        if (doc < productByDoc.length) return;
+        int capacity = productByDoc.length * 2;
+        productByDoc = Arrays.copyOf(productByDoc, capacity);
+        fieldsByDoc = Arrays.copyOf(fieldsByDoc, capacity);
+    }
+
+    private static List<Long> trigrams(String text) {
+        List<Long> result = new ArrayList<>(Math.max(0, text.length() - 2));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return result;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.carsil.userapi.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+    private final int total;
+    // ids de producto de la página pedida, en orden de relevancia
+    private final List<Long> productIds;
+}
@@ -0,0 +1,20 @@
+package com.carsil.userapi.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+final class SearchText {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {
+    }
+
+    // minúsculas y sin tildes: "CONFECCIÓN" -> "confeccion"
+    static String fold(String value) {
+        if (value == null || value.isEmpty()) return "";
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.toLowerCase(Locale.ROOT).trim();
+    }
+}
@@ -0,0 +1,134 @@
+package com.carsil.userapi.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Tokens de acceso firmados (JWT HS256) que emite /api/auth/login. Se validan solo en memoria:
+ * firma HMAC y vencimiento, sin base de datos ni BCrypt. Lo único con estado es la lista de tokens
+ * revocados por /logout, que se guarda hasta que el token vencería de todas formas.
+ * <p>
+ * carsil.auth.token-secret (Base64, 32 bytes o más) debe ser el mismo en todas las instancias; si está
+ * vacío se genera uno al arrancar y los tokens dejan de servir al reiniciar.
+ */
+@Slf4j
+@Component
+public class AuthTokenService {
+
+    private static final String HEADER = base64("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Value("${carsil.auth.token-ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${carsil.auth.token-secret:}")
+    private String secret;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final SecureRandom random = new SecureRandom();
+
+    private Mac prototype;
+
+    // jti revocados -> hasta cuándo importa recordarlos
+    private Cache<String, Boolean> revoked;
+
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            random.nextBytes(key);
+            log.warn("carsil.auth.token-secret is not set: using a random key, tokens will not survive a restart");
+        } else {
+            key = Base64.getDecoder().decode(secret.trim());
+            if (key.length < 32) throw new IllegalStateException("carsil.auth.token-secret must be at least 32 bytes");
+        }
+        prototype = Mac.getInstance("HmacSHA256");
+        prototype.init(new SecretKeySpec(key, "HmacSHA256"));
+        revoked = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(ttlMinutes)).build();
+    }
+
+    public String issue(String userName) {
+        long now = clock.instant().getEpochSecond();
+        byte[] jti = new byte[12];
+        random.nextBytes(jti);
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", userName);
+        claims.put("iat", now);
+        claims.put("exp", now + ttlSeconds());
+        claims.put("jti", base64(jti));
+        try {
+            String signingInput = HEADER + "." + base64(objectMapper.writeValueAsBytes(claims));
+            return signingInput + "." + base64(sign(signingInput));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not issue token", e);
+        }
+    }
+
+    /** Usuario del token si la firma es válida, no venció y no fue revocado. */
+    public Optional<String> resolve(String token) {
+        JsonNode claims = verifiedClaims(token);
+        if (claims == null) return Optional.empty();
+        if (claims.path("exp").asLong(0) <= clock.instant().getEpochSecond()) return Optional.empty();
+        if (revoked.getIfPresent(claims.path("jti").asText("")) != null) return Optional.empty();
+        String sub = claims.path("sub").asText(null);
+        return Optional.ofNullable(sub);
+    }
+
+    public void revoke(String token) {
+        JsonNode claims = verifiedClaims(token);
+        if (claims != null && claims.hasNonNull("jti")) revoked.put(claims.get("jti").asText(), Boolean.TRUE);
+    }
+
+    public long ttlSeconds() {
+        return Duration.ofMinutes(ttlMinutes).toSeconds();
+    }
+
+    private JsonNode verifiedClaims(String token) {
+        if (token == null) return null;
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first <= 0 || second <= first + 1 || token.indexOf('.', second + 1) >= 0) return null;
+        try {
+            String signingInput = token.substring(0, second);
+            if (!HEADER.equals(token.substring(0, first))) return null;
+            byte[] expected = sign(signingInput);
+            byte[] actual = DECODER.decode(token.substring(second + 1));
+            if (!MessageDigest.isEqual(expected, actual)) return null;
+            return objectMapper.readTree(DECODER.decode(token.substring(first + 1, second)));
+        } catch (Exception e) {
+            // Base64 o JSON inválidos: el token simplemente no autentica
+            return null;
+        }
+    }
+
+    private byte[] sign(String signingInput) throws CloneNotSupportedException {
+        Mac mac = (Mac) prototype.clone();
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
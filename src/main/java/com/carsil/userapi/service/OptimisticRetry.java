@@ -0,0 +1,68 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.metrics.ProductMetrics;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ejecuta operaciones conmutativas (sumar avance) en su propia transacción y la repite cuando pierde la
+ * carrera del {@code @Version}: cada intento relee la fila, así el delta se aplica sobre el valor vigente
+ * sin bloquearla. Solo para operaciones que dan lo mismo en cualquier orden; un PUT que reemplaza valores
+ * no se reintenta, responde 409.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductMetrics productMetrics;
+
+    @Value("${carsil.concurrency.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${carsil.concurrency.backoff-ms:10}")
+    private long backoffMs;
+
+    /** @param operation nombre de la transacción y de la métrica, p. ej. "ProductService.incrementMade" */
+    public <T> T inTransaction(String operation, TransactionCallback<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setName(operation);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return template.execute(action);
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    productMetrics.optimisticConflict(operation, "exhausted");
+                    log.warn("{} gave up after {} optimistic lock conflicts", operation, attempt);
+                    throw e;
+                }
+                productMetrics.optimisticConflict(operation, "retried");
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    // Espera aleatoria entre 0 y backoff * 2^(intento-1): los que chocaron no vuelven a chocar al unísono
+    private void backoff(int attempt, RuntimeException conflict) {
+        long max = backoffMs << Math.min(attempt - 1, 10);
+        if (max <= 0) return;
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(max + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
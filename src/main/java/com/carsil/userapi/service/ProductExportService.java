@@ -0,0 +1,125 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.exporter.ExportFormat;
+import com.carsil.userapi.exporter.RowWriter;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.enums.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Exportación de productos por rango de fecha de ingreso a planta directo desde un cursor JDBC: cada
+ * producto se escribe apenas se lee su fila, así que la memoria no crece con el rango y el encabezado
+ * sale antes de que la consulta termine. Las tallas van aplanadas: siempre las 14 columnas de {@link Size},
+ * en el orden del enum, vacías en los productos que no llevan esa talla.
+ */
+@Slf4j
+@Service
+public class ProductExportService {
+
+    static final List<String> FIELDS = List.of("id", "op", "reference", "campaign", "type", "description", "brand",
+            "status", "price", "quantity", "quantityMade", "missing", "sam", "samTotal", "assignedDate",
+            "plantEntryDate", "actualDeliveryDate", "stoppageReason", "teamId", "teamName");
+
+    private static final Size[] SIZES = Size.values();
+
+    static final List<String> COLUMNS = columns();
+
+    // El índice de plant_entry_date ya entrega el orden (fecha, id): la base no tiene que ordenar
+    private static final String SELECT = """
+            SELECT p.id, p.op, p.reference, p.campaign, p.type, p.description, p.brand, p.status, p.price,
+                   p.quantity, p.quantity_made, p.missing, p.sam, p.sam_total, p.assigned_date,
+                   p.plant_entry_date, p.actual_delivery_date, p.descripcion_paro, p.team_id,
+                   t.name AS team_name, p.size_units
+            FROM carsil_product p
+            LEFT JOIN carsil_team t ON t.id = p.team_id
+            WHERE p.plant_entry_date BETWEEN ? AND ?
+            ORDER BY p.plant_entry_date, p.id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        // Cursor de solo avance; en MySQL requiere useCursorFetch=true en la URL (dbConnections.txt) para que
+        // fetchSize no traiga todo el rango a memoria
+        JdbcTemplate cursor = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        cursor.setFetchSize(1000);
+
+        try (RowWriter writer = format.open(out, COLUMNS)) {
+            writer.flush();
+            Rows rows = new Rows(writer);
+            cursor.query(SELECT, rows, from, to);
+            log.info("Product export {}..{} as {}: {} products in {} ms",
+                    from, to, format, rows.count, System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            // Típicamente el cliente cerró la conexión a mitad de la descarga
+            throw e.getCause();
+        }
+    }
+
+    private static List<String> columns() {
+        List<String> columns = new ArrayList<>(FIELDS);
+        for (Size size : SIZES) columns.add(size.getLabel());
+        return List.copyOf(columns);
+    }
+
+    private static final class Rows implements RowCallbackHandler {
+        private final RowWriter writer;
+        private final Object[] values = new Object[COLUMNS.size()];
+        private long count;
+
+        private Rows(RowWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            values[0] = rs.getLong("id");
+            values[1] = rs.getString("op");
+            values[2] = rs.getString("reference");
+            values[3] = rs.getString("campaign");
+            values[4] = rs.getString("type");
+            values[5] = rs.getString("description");
+            values[6] = rs.getString("brand");
+            values[7] = rs.getString("status");
+            BigDecimal price = rs.getBigDecimal("price");
+            values[8] = price == null ? null : price.stripTrailingZeros();
+            values[9] = rs.getObject("quantity");
+            values[10] = rs.getObject("quantity_made");
+            values[11] = rs.getObject("missing");
+            values[12] = rs.getObject("sam");
+            values[13] = rs.getObject("sam_total");
+            values[14] = rs.getObject("assigned_date", LocalDate.class);
+            values[15] = rs.getObject("plant_entry_date", LocalDate.class);
+            values[16] = rs.getString("actual_delivery_date");
+            values[17] = rs.getString("descripcion_paro");
+            values[18] = rs.getObject("team_id");
+            values[19] = rs.getString("team_name");
+            SizeQuantities units = SizeQuantities.unpack(rs.getBytes("size_units"));
+            for (int i = 0; i < SIZES.length; i++) {
+                int u = units.get(SIZES[i]);
+                values[FIELDS.size() + i] = u == 0 ? null : u;
+            }
+            try {
+                writer.write(Arrays.asList(values));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.cache.ProductCache;
+import com.carsil.userapi.dto.ImportReport;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.importer.CsvRowReader;
+import com.carsil.userapi.importer.ProductRowMapper;
+import com.carsil.userapi.importer.RowReader;
+import com.carsil.userapi.importer.XlsxRowReader;
+import com.carsil.userapi.metrics.ProductMetrics;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.repository.TeamRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de órdenes de producción desde CSV o XLSX. Lee la hoja fila por fila, valida
+ * cada producto con las mismas reglas que POST /api/products y los inserta por JDBC en lotes de
+ * {@link #CHUNK}, una transacción por lote: un lote que falla no deshace los anteriores y, como las OP
+ * ya existentes se omiten, volver a subir el mismo archivo completa lo que faltó.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    static final int CHUNK = 1000;
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String INSERT_PRODUCT = """
+            INSERT INTO carsil_product (price, quantity, assigned_date, plant_entry_date, reference, brand, op,
+                campaign, type, description, status, quantity_made, missing, sam, sam_total, team_id, size_units, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TeamLoadTracker teamLoadTracker;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ProductMetrics productMetrics;
+
+    /** CSV (en el charset indicado) o XLSX según la extensión del archivo subido. */
+    public ImportReport importFile(MultipartFile file, Charset charset) throws IOException {
+        String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xls")) throw new IllegalArgumentException("Legacy .xls is not supported, save it as .xlsx or CSV");
+        if (!name.endsWith(".xlsx")) {
+            try (RowReader reader = new CsvRowReader(new InputStreamReader(file.getInputStream(), charset))) {
+                return importRows(reader);
+            }
+        }
+        // El .xlsx es un zip: hace falta acceso aleatorio para leer los textos compartidos antes que la hoja
+        Path copy = Files.createTempFile("carsil-import-", ".xlsx");
+        try {
+            file.transferTo(copy);
+            try (RowReader reader = new XlsxRowReader(copy)) {
+                return importRows(reader);
+            }
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    public ImportReport importRows(RowReader reader) throws IOException {
+        long start = System.nanoTime();
+        List<String> header = reader.next();
+        if (header == null) throw new IllegalArgumentException("The file is empty");
+        ProductRowMapper mapper = new ProductRowMapper(header);
+
+        Tally tally = new Tally();
+        Set<String> seenOps = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(CHUNK);
+        List<String> cells;
+        while ((cells = reader.next()) != null) {
+            if (ProductRowMapper.isBlank(cells)) continue;
+            tally.rows++;
+            long line = reader.line();
+            Product p;
+            try {
+                p = mapper.map(cells);
+                validate(p);
+            } catch (IllegalArgumentException e) {
+                tally.reject(line, mapper.op(cells), e.getMessage());
+                continue;
+            }
+            if (!seenOps.add(p.getOp())) {
+                tally.duplicate(line, p.getOp(), "op repeated in the file");
+                continue;
+            }
+            chunk.add(new Row(line, p));
+            if (chunk.size() == CHUNK) {
+                insertChunk(chunk, tally);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) insertChunk(chunk, tally);
+
+        productMetrics.imported("inserted", tally.inserted);
+        productMetrics.imported("duplicate", tally.duplicates);
+        productMetrics.imported("rejected", tally.rejected);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Product import: {} rows, {} inserted, {} duplicates, {} rejected in {} ms",
+                tally.rows, tally.inserted, tally.duplicates, tally.rejected, elapsedMs);
+        return ImportReport.builder()
+                .rows(tally.rows)
+                .inserted(tally.inserted)
+                .duplicates(tally.duplicates)
+                .rejected(tally.rejected)
+                .elapsedMs(elapsedMs)
+                .errors(tally.errors)
+                .build();
+    }
+
+    // Bean Validation (@NotNull, @Pattern) y las reglas de creación del producto (suma de tallas)
+    private void validate(Product p) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(p);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        p.validateForCreate();
+    }
+
+    private void insertChunk(List<Row> chunk, Tally tally) {
+        // Los conteos del lote solo valen si hace commit
+        Tally batch = new Tally();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk, batch));
+            tally.add(batch);
+        } catch (DataAccessException e) {
+            // Típicamente una OP creada por otra petición entre la verificación y el INSERT
+            String message = "batch of lines " + chunk.get(0).line + "-" + chunk.get(chunk.size() - 1).line
+                    + " rolled back: " + e.getMostSpecificCause().getMessage();
+            log.warn("Product import {}", message);
+            tally.rejected += chunk.size();
+            tally.error(chunk.get(0).line, null, message);
+        }
+    }
+
+    private void insert(List<Row> chunk, Tally tally) {
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT op FROM carsil_product WHERE op IN (" + placeholders(chunk.size()) + ")", String.class,
+                chunk.stream().map(r -> r.product.getOp()).toArray()));
+        Set<Long> teamIds = chunk.stream().map(r -> r.product.getTeam()).filter(Objects::nonNull)
+                .map(Team::getId).collect(Collectors.toSet());
+        Map<Long, Team> teams = teamRepository.findAllById(teamIds).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            Product p = row.product;
+            if (existing.contains(p.getOp())) {
+                tally.duplicate(row.line, p.getOp(), "op already exists");
+                continue;
+            }
+            if (p.getTeam() != null) {
+                Team team = teams.get(p.getTeam().getId());
+                if (team == null) {
+                    tally.reject(row.line, p.getOp(), "Team not found: " + p.getTeam().getId());
+                    continue;
+                }
+                p.setTeam(team);
+            }
+            ProductService.recalcDerived(p);
+            rows.add(row);
+        }
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, rows.stream().map(r -> productColumns(r.product)).toList());
+
+        // IDENTITY no devuelve las claves de un lote de forma portable: se leen por la OP, que es única
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, op FROM carsil_product WHERE op IN (" + placeholders(rows.size()) + ")",
+                rs -> {
+                    ids.put(rs.getString("op"), rs.getLong("id"));
+                },
+                rows.stream().map(r -> r.product.getOp()).toArray());
+
+        Set<Long> touchedTeams = new HashSet<>();
+        for (Row row : rows) {
+            Product p = row.product;
+            p.setId(ids.get(p.getOp()));
+            if (p.getTeam() != null) {
+                teamLoadTracker.record(p.getTeam(), p.getSamTotal() == null ? 0 : p.getSamTotal(), p.getLoadDays());
+                touchedTeams.add(p.getTeam().getId());
+            }
+        }
+
+        touchedTeams.forEach(productCache::evictTeamAfterCommit);
+        rows.forEach(r -> eventPublisher.publishEvent(ProductChangedEvent.imported(r.product)));
+        tally.inserted += rows.size();
+    }
+
+    private static Object[] productColumns(Product p) {
+        return new Object[]{
+                p.getPrice(), p.getQuantity(), Date.valueOf(p.getAssignedDate()),
+                p.getPlantEntryDate() == null ? null : Date.valueOf(p.getPlantEntryDate()),
+                p.getReference(), p.getBrand().name(), p.getOp(), p.getCampaign(), p.getType(), p.getDescription(),
+                p.getStatus().name(), p.getQuantityMade(), p.getMissing(), p.getSam(), p.getSamTotal(),
+                p.getTeam() == null ? null : p.getTeam().getId(), p.getSizeQuantities().pack()
+        };
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
+    private record Row(long line, Product product) {
+    }
+
+    private static final class Tally {
+        private long rows;
+        private long inserted;
+        private long duplicates;
+        private long rejected;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        private void duplicate(long line, String op, String message) {
+            duplicates++;
+            error(line, op, message);
+        }
+
+        private void reject(long line, String op, String message) {
+            rejected++;
+            error(line, op, message);
+        }
+
+        private void error(long line, String op, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportReport.RowError(line, op, message));
+        }
+
+        private void add(Tally batch) {
+            inserted += batch.inserted;
+            duplicates += batch.duplicates;
+            rejected += batch.rejected;
+            batch.errors.forEach(e -> error(e.getLine(), e.getOp(), e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.EnumCodec;
+import com.carsil.userapi.model.enums.ProductionStatus;
+import com.carsil.userapi.model.enums.Size;
+import com.carsil.userapi.model.enums.StoppageReason;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Aplica el cuerpo de un PATCH (el mapa que deja Jackson) sobre un {@link Product} con una tabla fija
+ * clave → setter tipado, armada una sola vez. Todas las claves se validan antes de tocar el producto:
+ * una desconocida o de solo lectura rechaza el PATCH completo.
+ * <p>
+ * {@link #VERSION} y {@link #TEAM_ID} se aceptan pero no se aplican aquí: la versión es la precondición
+ * que revisa el servicio y el módulo hay que buscarlo en la base.
+ */
+public final class ProductPatcher {
+
+    public static final String VERSION = "version";
+    public static final String TEAM_ID = "TeamId";
+
+    // Calculados (recalcDerived o getters @Transient), identidad o avance por talla (solo por
+    // /progress/sizes): vienen en el GET pero no se escriben
+    private static final Set<String> READ_ONLY = Set.of("id", "missing", "samTotal", "totalPrice",
+            "cycleCalculated", "quantityPending", "deliveryPercentage", "loadDays", "sizeMade");
+
+    private static final Map<String, BiConsumer<Product, Object>> SETTERS = Map.ofEntries(
+            Map.entry("price", (p, v) -> p.setPrice(toBigDecimal(v))),
+            Map.entry("quantity", (p, v) -> p.setQuantity(toInteger(v))),
+            Map.entry("quantityMade", (p, v) -> p.setQuantityMade(toInteger(v))),
+            Map.entry("assignedDate", (p, v) -> p.setAssignedDate(toDate(v))),
+            Map.entry("plantEntryDate", (p, v) -> p.setPlantEntryDate(toDate(v))),
+            Map.entry("reference", (p, v) -> p.setReference(toText(v))),
+            Map.entry("op", (p, v) -> p.setOp(toText(v))),
+            Map.entry("campaign", (p, v) -> p.setCampaign(toText(v))),
+            Map.entry("type", (p, v) -> p.setType(toText(v))),
+            Map.entry("description", (p, v) -> p.setDescription(toText(v))),
+            Map.entry("actualDeliveryDate", (p, v) -> p.setActualDeliveryDate(toText(v))),
+            Map.entry("sam", (p, v) -> p.setSam(toDouble(v))),
+            Map.entry("brand", (p, v) -> p.setBrand(toEnum(v, Brand.CODEC))),
+            Map.entry("status", (p, v) -> p.setStatus(toEnum(v, ProductionStatus.CODEC))),
+            Map.entry("stoppageReason", (p, v) -> p.setStoppageReason(toEnum(v, StoppageReason.CODEC))),
+            Map.entry("sizeQuantities", (p, v) -> p.setSizeQuantities(toSizes(v)))
+    );
+
+    private ProductPatcher() {
+    }
+
+    public static void apply(Product product, Map<String, Object> updates) {
+        for (String key : updates.keySet()) {
+            if (SETTERS.containsKey(key) || VERSION.equals(key) || TEAM_ID.equals(key)) continue;
+            if (READ_ONLY.contains(key)) throw new IllegalArgumentException("Field is read-only: " + key);
+            if ("team".equals(key)) throw new IllegalArgumentException("Use " + TEAM_ID + " to change the team");
+            throw new IllegalArgumentException("Unknown field: " + key);
+        }
+        for (Map.Entry<String, Object> e : updates.entrySet()) {
+            BiConsumer<Product, Object> setter = SETTERS.get(e.getKey());
+            if (setter == null) continue;
+            try {
+                setter.accept(product, e.getValue());
+            } catch (IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+                throw new IllegalArgumentException("Invalid value for " + e.getKey() + ": " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private static Integer toInteger(Object v) {
+        if (v == null || v instanceof Integer) return (Integer) v;
+        if (v instanceof String s) return Integer.valueOf(s.trim());
+        if (v instanceof Long || v instanceof Short || v instanceof Byte) return Math.toIntExact(((Number) v).longValue());
+        if (v instanceof Number n) return new BigDecimal(n.toString()).intValueExact();
+        throw new IllegalArgumentException("expected an integer");
+    }
+
+    private static Double toDouble(Object v) {
+        if (v == null || v instanceof Double) return (Double) v;
+        if (v instanceof Number n) return n.doubleValue();
+        if (v instanceof String s) return Double.valueOf(s.trim());
+        throw new IllegalArgumentException("expected a number");
+    }
+
+    private static BigDecimal toBigDecimal(Object v) {
+        if (v == null || v instanceof BigDecimal) return (BigDecimal) v;
+        if (v instanceof Integer || v instanceof Long) return BigDecimal.valueOf(((Number) v).longValue());
+        if (v instanceof Number n) return new BigDecimal(n.toString());
+        if (v instanceof String s) return new BigDecimal(s.trim());
+        throw new IllegalArgumentException("expected a number");
+    }
+
+    private static String toText(Object v) {
+        if (v == null || v instanceof String) return (String) v;
+        if (v instanceof Number || v instanceof Boolean) return v.toString();
+        throw new IllegalArgumentException("expected a string");
+    }
+
+    private static LocalDate toDate(Object v) {
+        if (v == null) return null;
+        if (!(v instanceof String s)) throw new IllegalArgumentException("expected a date (yyyy-MM-dd)");
+        // yyyy-MM-dd es lo que manda el front: se arma sin pasar por DateTimeFormatter
+        if (s.length() == 10 && s.charAt(4) == '-' && s.charAt(7) == '-') {
+            int year = digits(s, 0, 4), month = digits(s, 5, 7), day = digits(s, 8, 10);
+            if (year >= 0 && month >= 0 && day >= 0) return LocalDate.of(year, month, day);
+        }
+        return LocalDate.parse(s.trim());
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static SizeQuantities toSizes(Object v) {
+        if (v == null) return null;
+        if (!(v instanceof Map<?, ?> raw)) throw new IllegalArgumentException("expected an object of size → units");
+        SizeQuantities sizes = new SizeQuantities();
+        raw.forEach((size, units) -> sizes.set(Size.fromLabel(String.valueOf(size)), units == null ? 0 : toInteger(units)));
+        return sizes;
+    }
+
+    private static <E extends Enum<E>> E toEnum(Object v, EnumCodec<E> codec) {
+        if (v == null) return null;
+        if (!(v instanceof String s)) throw new IllegalArgumentException("Invalid " + codec.description() + ": " + v);
+        return codec.parse(s);
+    }
+}
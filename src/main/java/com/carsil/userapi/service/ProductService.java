@@ -1,19 +1,39 @@
 package com.carsil.userapi.service;
 
+import com.carsil.userapi.cache.ProductCache;
+import com.carsil.userapi.dto.CacheStats;
+import com.carsil.userapi.dto.ProductPage;
+import com.carsil.userapi.dto.ProductSearchPage;
+import com.carsil.userapi.dto.ProductSummary;
+import com.carsil.userapi.dto.ProgressResult;
+import com.carsil.userapi.dto.ProgressUpdate;
+import com.carsil.userapi.dto.SizeProgressUpdate;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.metrics.ProductMetrics;
 import com.carsil.userapi.model.Team;
 import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
 import com.carsil.userapi.model.enums.ProductionStatus;
+import com.carsil.userapi.model.enums.Size;
 import com.carsil.userapi.repository.TeamRepository;
 import com.carsil.userapi.repository.ProductRepository;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.persistence.OptimisticLockException;
+import com.carsil.userapi.search.ProductSearchIndex;
+import com.carsil.userapi.search.SearchHits;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
@@ -25,22 +45,69 @@ public class ProductService {
     private TeamRepository teamRepository;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private TeamLoadTracker teamLoadTracker;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductMetrics productMetrics;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final int MAX_PROGRESS_BATCH = 10_000;
+
+    private static final int LOAD_CHUNK = 1000;
 
     @Transactional(readOnly = true)
     public List<Product> getAll() {
         return productRepository.findAll();
     }
 
-    private static final Set<String> IMMUTABLE_FIELDS = Set.of("id");
+    @Transactional(readOnly = true)
+    public ProductPage getPage(Long after, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Product> items = productRepository.findByIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(size));
+        Long next = items.size() < size ? null : items.get(items.size() - 1).getId();
+        return new ProductPage(items, next);
+    }
 
-    private static final String TEAM_ID = "TeamId";
+    /**
+     * Recorre todos los productos sobre un cursor JDBC. Cada producto se entrega al sink
+     * y se saca del contexto de persistencia, así la memoria no crece con la tabla.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Product> sink) {
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(p -> {
+                sink.accept(p);
+                entityManager.detach(p);
+            });
+        }
+    }
 
     @Transactional
     public void delete(Long id) {
         Product p = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product does not exist: " + id));
         productRepository.delete(p);
+        teamLoadTracker.record(p.getTeam(), -samOf(p), null);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(p));
     }
 
     @Transactional
@@ -49,19 +116,20 @@ public class ProductService {
         if (p.getQuantityMade() == null) p.setQuantityMade(0);
         if (p.getQuantity() == null)
             throw new IllegalArgumentException("quantity is required");
-        if(p.getTeam() != null){
-            var m = teamRepository.findById(p.getTeam().getId()).get();
-            m.setLoadDays(p.getLoadDays());
-            teamRepository.save(m);
-        }
+        p.setVersion(null);
+        if (p.getTeam() != null) p.setTeam(resolveTeam(p.getTeam().getId()));
         recalcDerived(p);
-        return productRepository.save(p);
+        applyTeamLoad(null, 0, p);
+        return saved(productRepository.save(p));
     }
 
     @Transactional
     public Product update(Product patch,Long id) {
         Product existing = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + id));
+        checkVersion(existing, patch.getVersion());
+        Team oldTeam = existing.getTeam();
+        int oldSam = samOf(existing);
 
         if (patch.getPrice() != null) existing.setPrice(patch.getPrice());
         if (patch.getQuantity() != null) existing.setQuantity(patch.getQuantity());
@@ -77,10 +145,10 @@ public class ProductService {
         if (patch.getStatus() != null) existing.setStatus(patch.getStatus());
         if (patch.getStoppageReason() != null) existing.setStoppageReason(patch.getStoppageReason());
         if (patch.getActualDeliveryDate() != null) existing.setActualDeliveryDate(patch.getActualDeliveryDate());
-        if (patch.getTeam() != null) existing.setTeam(patch.getTeam());
+        if (patch.getTeam() != null) existing.setTeam(resolveTeam(patch.getTeam().getId()));
         if (patch.getOp() != null && !patch.getOp().equals(existing.getOp())
                 && productRepository.existsByOpAndIdNot(patch.getOp(), id)) {
-            throw new org.springframework.dao.DuplicateKeyException("op already exists: " + patch.getOp());
+            throw new DuplicateKeyException("op already exists: " + patch.getOp());
         }
         if (patch.getQuantityMade() != null) {
             int delta = patch.getQuantityMade() - existing.getQuantityMade();
@@ -88,22 +156,64 @@ public class ProductService {
         }
 
         recalcDerived(existing);
-        try {
-            return productRepository.save(existing);
-        } catch (OptimisticLockException e) {
-            throw new IllegalStateException("Concurrent update detected for product " + id, e);
+        applyTeamLoad(oldTeam, oldSam, existing);
+        // Un choque con otra escritura se detecta al commit (@Version) y responde 409
+        return saved(productRepository.save(existing));
+    }
+
+    /**
+     * Si el cliente manda la versión que leyó y ya no es la vigente, alguien más escribió entre su GET y
+     * este cambio: se rechaza (409) en vez de pisarlo. Sin versión solo cuenta el choque al commit.
+     */
+    private static void checkVersion(Product existing, Object expected) {
+        if (expected == null) return;
+        if (!String.valueOf(expected).equals(String.valueOf(existing.getVersion()))) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, existing.getId());
         }
     }
 
 
     @Transactional(readOnly = true)
     public List<Product> search(String q) {
-        return productRepository.search(Optional.ofNullable(q).orElse("").trim());
+        String query = Optional.ofNullable(q).orElse("").trim();
+        if (!searchIndex.isReady()) return productRepository.search(query);
+        return loadInOrder(searchIndex.search(query, 0, Integer.MAX_VALUE).getProductIds());
     }
 
     @Transactional(readOnly = true)
+    public ProductSearchPage searchPage(String q, int page, int size) {
+        if (page < 0) throw new IllegalArgumentException("page must be >= 0");
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String query = Optional.ofNullable(q).orElse("").trim();
+        if (!searchIndex.isReady()) {
+            List<Product> all = productRepository.search(query);
+            int from = (int) Math.min((long) page * size, all.size());
+            return new ProductSearchPage(all.subList(from, Math.min(all.size(), from + size)), all.size(), page, size);
+        }
+        SearchHits hits = searchIndex.search(query, (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        return new ProductSearchPage(loadInOrder(hits.getProductIds()), hits.getTotal(), page, size);
+    }
+
+    // Carga los productos por id manteniendo el orden recibido (el de relevancia)
+    private List<Product> loadInOrder(List<Long> ids) {
+        Map<Long, Product> byId = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK) {
+            productRepository.findByIdIn(ids.subList(from, Math.min(ids.size(), from + LOAD_CHUNK)))
+                    .forEach(p -> byId.put(p.getId(), p));
+        }
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product p = byId.get(id);
+            if (p != null) ordered.add(p);
+        }
+        return ordered;
+    }
+
+    // Sin @Transactional: un acierto de caché no debe tomar conexión; el repositorio abre la suya al cargar
     public Optional<Product> getById(Long id) {
-        return productRepository.findById(id);
+        return Optional.ofNullable(productCache.getById(id, key -> productRepository.findById(key).orElse(null)));
     }
 
     @Transactional(readOnly = true)
@@ -111,9 +221,26 @@ public class ProductService {
         return productRepository.findByTeamId(teamId);
     }
 
-    @Transactional(readOnly = true)
     public List<Product> getProductsByOp(String op) {
-        return productRepository.findByOp(op);
+        return productCache.getByOp(op, key -> List.copyOf(productRepository.findByOp(key)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<? extends ProductSummary> getSummary(String by, LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return switch (by) {
+            case "status" -> productRepository.summarizeByStatus(from, to);
+            case "brand" -> productRepository.summarizeByBrand(from, to);
+            case "team" -> productRepository.summarizeByTeam(from, to);
+            case "campaign" -> productRepository.summarizeByCampaign(from, to);
+            default -> throw new IllegalArgumentException("Unknown summary: " + by + " (status, brand, team, campaign)");
+        };
+    }
+
+    public List<CacheStats> getCacheStats() {
+        return productCache.stats();
     }
 
     @Transactional(readOnly = true)
@@ -125,13 +252,15 @@ public class ProductService {
     public Product setMade(Long id, int newValue) {
         Product p = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + id));
+        int oldSam = samOf(p);
         int delta = newValue - (p.getQuantityMade() == null ? 0 : p.getQuantityMade());
-        p.addMade(delta);
+        addMade(p, delta);
         recalcDerived(p);
-        return productRepository.save(p);
+        applyTeamLoad(p.getTeam(), oldSam, p);
+        return saved(productRepository.save(p));
     }
 
-    private void recalcDerived(Product p) {
+    static void recalcDerived(Product p) {
         // missing = quantity - quantityMade
         if (p.getQuantity() != null) {
             int made = (p.getQuantityMade() == null ? 0 : p.getQuantityMade());
@@ -143,24 +272,264 @@ public class ProductService {
         }
         // status default si faltó
         if (p.getStatus() == null) p.setStatus(ProductionStatus.PROCESO);
-        if(p.getTeam() != null){
-            Team m = teamRepository.findById(p.getTeam().getId()).get();
-            m.setLoadDays(p.getLoadDays());
-            teamRepository.save(m);
+    }
+
+    // Registra la carga del producto en su módulo (y la retira del anterior); se escribe al commit
+    private void applyTeamLoad(Team oldTeam, int oldSam, Product p) {
+        Team newTeam = p.getTeam();
+        BigDecimal loadDays = newTeam == null ? null : p.getLoadDays();
+        if (Objects.equals(teamIdOf(oldTeam), teamIdOf(newTeam))) {
+            teamLoadTracker.record(newTeam, samOf(p) - oldSam, loadDays);
+        } else {
+            teamLoadTracker.record(oldTeam, -oldSam, null);
+            teamLoadTracker.record(newTeam, samOf(p), loadDays);
         }
     }
 
-    @Transactional
+    private Team resolveTeam(Long teamId) {
+        return teamRepository.findById(teamId)
+                .orElseThrow(() -> new IllegalArgumentException("Team not found: " + teamId));
+    }
+
+    private Product saved(Product p) {
+        eventPublisher.publishEvent(ProductChangedEvent.saved(p));
+        return p;
+    }
+
+    private static Long teamIdOf(Team team) {
+        return team == null ? null : team.getId();
+    }
+
+    private static int samOf(Product p) {
+        return p.getSamTotal() == null ? 0 : p.getSamTotal();
+    }
+
+    // Sin @Transactional: cada intento de OptimisticRetry es su propia transacción
     public Product incrementMade(Long id, int delta) {
+        productMetrics.progressTicks("single", 1);
+        return optimisticRetry.inTransaction("ProductService.incrementMade", status -> applyIncrement(id, delta));
+    }
+
+    private Product applyIncrement(Long id, int delta) {
         Product p = productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + id));
+        int oldSam = samOf(p);
 
         if (delta != 0) {
-            p.addMade(delta);
+            addMade(p, delta);
+        }
+
+        recalcDerived(p);
+        applyTeamLoad(p.getTeam(), oldSam, p);
+        return saved(productRepository.save(p));
+    }
+
+    /**
+     * Aplica muchos avances en una sola transacción: agrupa los deltas por producto, carga los
+     * productos afectados con IN (...) y deja que Hibernate escriba los UPDATE en lotes JDBC.
+     * Un producto que no pasa la validación de addMade se reporta como fallido y no afecta al resto.
+     * Devuelve un resultado por item, en el mismo orden del lote.
+     * Si otro escribió alguno de los productos entre la carga y el commit, el lote completo se repite.
+     */
+    public List<ProgressResult> applyProgressBatch(List<ProgressUpdate> updates) {
+        productMetrics.progressTicks("batch", updates == null ? 0 : updates.size());
+        return optimisticRetry.inTransaction("ProductService.applyProgressBatch", status -> applyProgress(updates));
+    }
+
+    /**
+     * Para ProgressCoalescer: los ticks de cada producto en el orden en que llegaron (ya se contaron al
+     * encolarlos). Se aplican uno a uno sobre el producto en memoria, como si hubieran llegado sueltos: el
+     * que no cabe se rechaza (y se cuenta) sin arrastrar a los demás, y cada producto se escribe una vez.
+     * Un resultado por producto, con delta = lo aplicado.
+     */
+    public List<ProgressResult> applyCoalescedProgress(Map<Long, int[]> ticksByProduct) {
+        return optimisticRetry.inTransaction("ProductService.applyCoalescedProgress", status -> applyTicks(ticksByProduct));
+    }
+
+    private List<ProgressResult> applyTicks(Map<Long, int[]> ticksByProduct) {
+        if (ticksByProduct.size() > MAX_PROGRESS_BATCH) {
+            throw new IllegalArgumentException("A progress batch cannot exceed " + MAX_PROGRESS_BATCH + " items");
+        }
+        Map<Long, Product> products = loadByIds(ticksByProduct.keySet());
+        List<ProgressResult> results = new ArrayList<>(ticksByProduct.size());
+        ticksByProduct.forEach((id, ticks) -> {
+            Product p = products.get(id);
+            if (p == null) {
+                results.add(failure(id, 0, "Product not found: " + id));
+                return;
+            }
+            int oldSam = samOf(p);
+            int applied = 0, accepted = 0;
+            for (int tick : ticks) {
+                try {
+                    addMade(p, tick);
+                    applied += tick;
+                    accepted++;
+                } catch (IllegalArgumentException | IllegalStateException e) {
+                    // ya contado en addMade; el siguiente tick se evalúa sobre lo aplicado hasta aquí
+                }
+            }
+            if (accepted > 0) {
+                recalcDerived(p);
+                applyTeamLoad(p.getTeam(), oldSam, p);
+                saved(p);
+            }
+            int rejected = ticks.length - accepted;
+            results.add(ProgressResult.builder()
+                    .productId(id)
+                    .delta(applied)
+                    .success(rejected == 0)
+                    .quantityMade(p.getQuantityMade())
+                    .missing(p.getMissing())
+                    .sizeMade(p.getSizeMade())
+                    .error(rejected == 0 ? null : rejected + " of " + ticks.length + " ticks rejected")
+                    .build());
+        });
+        return results;
+    }
+
+    private List<ProgressResult> applyProgress(List<ProgressUpdate> updates) {
+        if (updates == null || updates.isEmpty()) return List.of();
+        if (updates.size() > MAX_PROGRESS_BATCH) {
+            throw new IllegalArgumentException("A progress batch cannot exceed " + MAX_PROGRESS_BATCH + " items");
         }
 
+        // Los items de un mismo producto se aplican juntos (delta neto); una suma que no cabe en un int
+        // falla para ese producto, no para el lote
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        Set<Long> overflowed = new HashSet<>();
+        for (ProgressUpdate u : updates) {
+            if (u == null || u.getProductId() == null || u.getDelta() == null) {
+                throw new IllegalArgumentException("productId and delta are required on every item");
+            }
+            try {
+                deltas.merge(u.getProductId(), u.getDelta(), Math::addExact);
+            } catch (ArithmeticException e) {
+                overflowed.add(u.getProductId());
+            }
+        }
+        deltas.keySet().removeAll(overflowed);
+
+        Map<Long, Product> products = loadByIds(deltas.keySet());
+
+        Map<Long, ProgressResult> byProduct = new HashMap<>();
+        overflowed.forEach(id -> byProduct.put(id, failure(id, 0, "The deltas of product " + id + " overflow")));
+        deltas.forEach((id, delta) -> byProduct.put(id, applyNet(id, products.get(id), delta)));
+
+        // Un resultado por item, en el orden en que llegaron, con el resultado de su producto
+        List<ProgressResult> results = new ArrayList<>(updates.size());
+        for (ProgressUpdate u : updates) {
+            results.add(byProduct.get(u.getProductId()).toBuilder().delta(u.getDelta()).build());
+        }
+        return results;
+    }
+
+    private ProgressResult applyNet(Long id, Product p, int delta) {
+        if (p == null) return failure(id, delta, "Product not found: " + id);
+        int oldSam = samOf(p);
+        try {
+            addMade(p, delta);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return failure(id, delta, e.getMessage());
+        }
         recalcDerived(p);
-        return productRepository.save(p);
+        applyTeamLoad(p.getTeam(), oldSam, p);
+        saved(p);
+        return ProgressResult.builder()
+                .productId(id)
+                .delta(delta)
+                .success(true)
+                .quantityMade(p.getQuantityMade())
+                .missing(p.getMissing())
+                .sizeMade(p.getSizeMade())
+                .build();
+    }
+
+    /**
+     * Avance por talla de muchos productos, todo o nada: si un item no es válido (producto inexistente,
+     * talla que el producto no lleva, contador fuera de rango) responde 400 y no se aplica ninguno.
+     * Solo se reescribe la fila de cada producto: size_made es una columna más, no una colección.
+     */
+    public List<ProgressResult> applySizeProgressBatch(List<SizeProgressUpdate> updates) {
+        productMetrics.progressTicks("sizes", updates == null ? 0 : updates.size());
+        return optimisticRetry.inTransaction("ProductService.applySizeProgressBatch", status -> applySizeProgress(updates));
+    }
+
+    private List<ProgressResult> applySizeProgress(List<SizeProgressUpdate> updates) {
+        if (updates == null || updates.isEmpty()) return List.of();
+        if (updates.size() > MAX_PROGRESS_BATCH) {
+            throw new IllegalArgumentException("A progress batch cannot exceed " + MAX_PROGRESS_BATCH + " items");
+        }
+
+        // Deltas netos por producto y talla; SizeQuantities sirve de acumulador aunque lleve negativos
+        Map<Long, SizeQuantities> deltas = new LinkedHashMap<>();
+        for (SizeProgressUpdate u : updates) {
+            if (u == null || u.getProductId() == null || u.getSize() == null || u.getDelta() == null) {
+                throw new IllegalArgumentException("productId, size and delta are required on every item");
+            }
+            SizeQuantities bySize = deltas.computeIfAbsent(u.getProductId(), id -> new SizeQuantities());
+            long net = (long) bySize.get(u.getSize()) + u.getDelta();
+            if (net != (int) net) {
+                throw new IllegalArgumentException("The deltas of product " + u.getProductId() + ", size "
+                        + u.getSize().getLabel() + " overflow");
+            }
+            bySize.set(u.getSize(), (int) net);
+        }
+
+        Map<Long, Product> products = loadByIds(deltas.keySet());
+
+        List<ProgressResult> results = new ArrayList<>(deltas.size());
+        deltas.forEach((id, bySize) -> {
+            Product p = products.get(id);
+            if (p == null) throw new IllegalArgumentException("Product not found: " + id);
+            int oldSam = samOf(p);
+            int oldMade = p.getQuantityMade() == null ? 0 : p.getQuantityMade();
+            bySize.forEach((size, delta) -> addMade(p, size, delta));
+            applyTeamLoad(p.getTeam(), oldSam, p);
+            saved(p);
+            results.add(ProgressResult.builder()
+                    .productId(id)
+                    .delta(p.getQuantityMade() - oldMade)
+                    .success(true)
+                    .quantityMade(p.getQuantityMade())
+                    .missing(p.getMissing())
+                    .sizeMade(p.getSizeMade())
+                    .build());
+        });
+        return results;
+    }
+
+    private Map<Long, Product> loadByIds(Collection<Long> ids) {
+        Map<Long, Product> products = new HashMap<>();
+        List<Long> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += LOAD_CHUNK) {
+            List<Long> chunk = list.subList(from, Math.min(list.size(), from + LOAD_CHUNK));
+            productRepository.findByIdIn(chunk).forEach(p -> products.put(p.getId(), p));
+        }
+        return products;
+    }
+
+    private void addMade(Product p, int delta) {
+        try {
+            p.addMade(delta);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            productMetrics.progressRejected(p, delta);
+            throw e;
+        }
+    }
+
+    // El error lleva el producto: en un lote todo o nada hay que saber cuál item lo tumbó
+    private void addMade(Product p, Size size, int delta) {
+        try {
+            p.addMade(size, delta);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            productMetrics.progressRejected(p, size, delta);
+            throw new IllegalArgumentException("Product " + p.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ProgressResult failure(Long id, int delta, String error) {
+        return ProgressResult.builder().productId(id).delta(delta).success(false).error(error).build();
     }
 
     @Transactional
@@ -171,30 +540,20 @@ public class ProductService {
         if (updates == null || updates.isEmpty()) {
             return existing;
         }
-
-        Map<String, Object> sanitized = new HashMap<>(updates);
-        IMMUTABLE_FIELDS.forEach(sanitized::remove);
-
-        if (sanitized.containsKey(TEAM_ID)) {
-            Object raw = sanitized.remove(TEAM_ID);
-            if (raw != null) {
-                Long productId = toLong(raw);
-                Team team = teamRepository.findById(productId)
-                        .orElseThrow(() -> new IllegalArgumentException("Team not found: " + productId));
-                existing.setTeam(team);
-            } else {
-                existing.setTeam(null);
-            }
-        }
-        try {
-            objectMapper.updateValue(existing, sanitized);
-        } catch (IllegalArgumentException | JsonMappingException e) {
-            throw new RuntimeException("Invalid PATCH payload: " + e.getMessage(), e);
+        checkVersion(existing, updates.get(ProductPatcher.VERSION));
+        Team oldTeam = existing.getTeam();
+        int oldSam = samOf(existing);
+
+        ProductPatcher.apply(existing, updates);
+        if (updates.containsKey(ProductPatcher.TEAM_ID)) {
+            Object raw = updates.get(ProductPatcher.TEAM_ID);
+            existing.setTeam(raw == null ? null : resolveTeam(toLong(raw)));
         }
 
         recalcDerived(existing);
+        applyTeamLoad(oldTeam, oldSam, existing);
 
-        return productRepository.save(existing);
+        return saved(productRepository.save(existing));
     }
 
     private Long toLong(Object raw) {
@@ -0,0 +1,148 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.dto.ProgressResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import com.carsil.userapi.metrics.ProductMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Modo opcional de escritura diferida para los avances: los ticks se guardan en memoria por producto, en
+ * orden, y se escriben juntos con {@link ProductService#applyCoalescedProgress} cada pocos cientos de ms o
+ * al llegar a max-pending productos. Cambia consistencia inmediata por cero contención en la fila.
+ * No se suman al encolar: un neto fuera de rango tumbaría también los ticks que sí caben.
+ */
+@Slf4j
+@Component
+public class ProgressCoalescer {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductMetrics productMetrics;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor taskExecutor;
+
+    @Value("${carsil.progress.coalescing.enabled:false}")
+    private boolean enabled;
+
+    @Value("${carsil.progress.coalescing.max-pending:1000}")
+    private int maxPending;
+
+    // Los Ticks solo se modifican dentro del compute de su clave
+    private final ConcurrentHashMap<Long, Ticks> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submit(Long productId, int delta) {
+        if (productId == null) throw new IllegalArgumentException("productId is required");
+        if (delta == 0) return;
+        productMetrics.progressTicks("coalesced", 1);
+        pending.compute(productId, (id, ticks) -> (ticks == null ? new Ticks() : ticks).add(delta));
+        if (pending.size() >= maxPending) {
+            taskExecutor.execute(this::flush);
+        }
+    }
+
+    public int pendingProducts() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${carsil.progress.coalescing.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        if (!pending.isEmpty()) flush();
+    }
+
+    public void flush() {
+        if (!flushLock.tryLock()) return;
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            Map<Long, int[]> batch = new LinkedHashMap<>();
+            for (Long id : pending.keySet()) {
+                Ticks ticks = pending.remove(id);
+                if (ticks != null) batch.put(id, ticks.toArray());
+                if (batch.size() == ProductService.MAX_PROGRESS_BATCH) break;
+            }
+            if (batch.isEmpty() || !write(batch)) return;
+        }
+    }
+
+    private boolean write(Map<Long, int[]> batch) {
+        List<ProgressResult> results;
+        try {
+            results = productService.applyCoalescedProgress(batch);
+        } catch (RuntimeException e) {
+            // La transacción completa falló: los ticks vuelven a la cola delante de los que llegaron después
+            batch.forEach((id, ticks) -> pending.compute(id, (k, newer) -> new Ticks().addAll(ticks, newer)));
+            log.warn("Progress flush of {} products failed, re-queued: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        // Los rechazos ya están en carsil.progress.rejections
+        for (ProgressResult r : results) {
+            if (!r.isSuccess()) {
+                log.warn("Coalesced progress for product {}: applied {}, {}", r.getProductId(), r.getDelta(), r.getError());
+            }
+        }
+        return true;
+    }
+
+    private static final class Ticks {
+        private int[] values = new int[4];
+        private int size;
+
+        Ticks add(int delta) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = delta;
+            return this;
+        }
+
+        Ticks addAll(int[] first, Ticks then) {
+            for (int delta : first) add(delta);
+            if (then != null) {
+                for (int i = 0; i < then.size; i++) add(then.values[i]);
+            }
+            return this;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.enums.Size;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Pasa las tallas de la tabla vieja product_size_quantities (una fila por talla) a la columna empacada
+ * size_units. Solo toca productos con size_units en NULL, así que se puede correr en cada arranque.
+ * La tabla vieja queda como estaba; se puede borrar cuando la migración haya corrido.
+ * Un producto con alguna talla fuera del enum no se migra: queda en NULL para que otra corrida lo
+ * tome cuando se corrija el enum o el dato.
+ * <p>
+ * Corre al crear el bean, antes de que arranque Tomcat: mientras quede un producto sin migrar, su
+ * size_units en NULL se lee como sin tallas y cualquier guardado lo pisaría con un empacado vacío.
+ * Depende del entityManagerFactory para que ddl-auto ya haya creado la columna.
+ */
+@Slf4j
+@Service
+@DependsOn("entityManagerFactory")
+public class SizeTableMigration implements InitializingBean {
+
+    static final String LEGACY_TABLE = "product_size_quantities";
+
+    private static final int BATCH = 1000;
+
+    private static final String SELECT_LEGACY = """
+            SELECT s.product_id, s.size, s.units
+            FROM product_size_quantities s JOIN carsil_product p ON p.id = s.product_id
+            WHERE p.size_units IS NULL
+            ORDER BY s.product_id
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        int products = migrate();
+        if (products > 0) {
+            log.info("Moved sizes of {} products to size_units; table {} can be dropped", products, LEGACY_TABLE);
+        }
+    }
+
+    /** Productos migrados; 0 si la tabla vieja no existe o ya no queda nada por pasar. */
+    public int migrate() {
+        if (!legacyTableExists()) return 0;
+
+        Pending pending = new Pending();
+        JdbcTemplate cursor = new JdbcTemplate(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+        cursor.setFetchSize(BATCH);
+        // Las filas llegan ordenadas por producto: al cambiar de id el anterior ya está completo
+        cursor.query(SELECT_LEGACY, rs -> {
+            long productId = rs.getLong("product_id");
+            if (pending.sizes == null || pending.productId != productId) {
+                pending.close();
+                pending.productId = productId;
+                pending.sizes = new SizeQuantities();
+            }
+            String label = rs.getString("size");
+            Size size = label == null ? null : Size.CODEC.find(label);
+            if (size == null) {
+                // Talla fuera del enum: no tiene lugar en la columna; el producto entero se deja para después
+                if (!pending.skip) pending.skipped++;
+                pending.skip = true;
+                if (pending.unknown.size() < 20) pending.unknown.add(productId + ":" + label);
+                return;
+            }
+            pending.sizes.set(size, rs.getInt("units"));
+        });
+        pending.close();
+        pending.flush();
+
+        if (pending.skipped > 0) {
+            log.warn("{} products have sizes outside the Size enum and were left with size_units NULL (product:size, first {}): {}",
+                    pending.skipped, pending.unknown.size(), pending.unknown);
+        }
+        return pending.migrated;
+    }
+
+    private final class Pending {
+        long productId;
+        SizeQuantities sizes;
+        boolean skip;
+        int migrated;
+        int skipped;
+        final List<Object[]> batch = new ArrayList<>(BATCH);
+        final List<String> unknown = new ArrayList<>();
+
+        void close() {
+            if (sizes == null) return;
+            if (!skip) {
+                batch.add(new Object[]{sizes.pack(), productId});
+                migrated++;
+            }
+            sizes = null;
+            skip = false;
+            if (batch.size() == BATCH) flush();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            jdbcTemplate.batchUpdate("UPDATE carsil_product SET size_units = ? WHERE id = ? AND size_units IS NULL", batch);
+            batch.clear();
+        }
+    }
+
+    // H2 guarda los nombres en mayúsculas y MySQL en minúsculas
+    private boolean legacyTableExists() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData meta = connection.getMetaData();
+            for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                try (ResultSet tables = meta.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) return true;
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,94 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.repository.TeamRepository;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Acumula los cambios de carga de cada módulo durante la transacción y los escribe una sola vez,
+ * justo antes del commit: un UPDATE por módulo, y ninguno si nada cambió.
+ */
+@Component
+public class TeamLoadTracker {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    /**
+     * @param samDelta variación de la suma de samTotal del módulo
+     * @param loadDays últimos días de carga calculados para el módulo, o null para conservar el actual
+     */
+    public void record(Team team, long samDelta, BigDecimal loadDays) {
+        if (team == null || team.getId() == null) return;
+        if (samDelta == 0 && loadDays == null) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(new Pending(team).add(samDelta, loadDays));
+            return;
+        }
+        pending().computeIfAbsent(team.getId(), id -> new Pending(team)).add(samDelta, loadDays);
+    }
+
+    private Map<Long, Pending> pending() {
+        @SuppressWarnings("unchecked")
+        Map<Long, Pending> current = (Map<Long, Pending>) TransactionSynchronizationManager.getResource(this);
+        if (current != null) return current;
+
+        Map<Long, Pending> created = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                created.values().forEach(TeamLoadTracker.this::apply);
+                created.clear();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TeamLoadTracker.this);
+            }
+        });
+        return created;
+    }
+
+    private void apply(Pending p) {
+        Team team = p.team;
+        boolean loaded = Hibernate.isInitialized(team);
+        boolean loadChanged = p.loadDays != null
+                && !(loaded && team.getLoadDays() != null && team.getLoadDays().compareTo(p.loadDays) == 0);
+        if (p.samDelta == 0 && !loadChanged) return;
+
+        teamRepository.applyLoad(team.getId(), p.samDelta, loadChanged ? p.loadDays : null);
+
+        // Ambas columnas son updatable=false: ajustar la entidad solo refresca la respuesta
+        if (loaded) {
+            long sum = team.getSamTotalSum() == null ? 0L : team.getSamTotalSum();
+            team.setSamTotalSum(sum + p.samDelta);
+            if (loadChanged) team.setLoadDays(p.loadDays);
+        }
+    }
+
+    private static final class Pending {
+        private final Team team;
+        private long samDelta;
+        private BigDecimal loadDays;
+
+        private Pending(Team team) {
+            this.team = team;
+        }
+
+        private Pending add(long samDelta, BigDecimal loadDays) {
+            this.samDelta += samDelta;
+            if (loadDays != null) this.loadDays = loadDays;
+            return this;
+        }
+    }
+}
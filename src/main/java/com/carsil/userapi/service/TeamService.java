@@ -1,10 +1,14 @@
 package com.carsil.userapi.service;
 
+import com.carsil.userapi.cache.ProductCache;
+import com.carsil.userapi.event.ProductChangedEvent;
 import com.carsil.userapi.model.Team;
 import com.carsil.userapi.model.Product;
 import com.carsil.userapi.repository.TeamRepository;
 import com.carsil.userapi.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +24,15 @@ public class TeamService {
     @Autowired
     private  ProductRepository productRepository;
 
+    @Autowired
+    private TeamLoadTracker teamLoadTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProductCache productCache;
+
     public List<Team> getAll() {
         return teamRepository.findAll();
     }
@@ -38,6 +51,8 @@ public class TeamService {
     @Transactional
     public Team create(Team m) {
         if (m.getNumPersons() == null) m.setNumPersons(0);
+        m.setSamTotalSum(0L);
+        m.setVersion(null);
         return teamRepository.save(m);
     }
 
@@ -49,15 +64,21 @@ public class TeamService {
             throw new IllegalArgumentException("numPersons must be >= 0");
         }
         m.setNumPersons(numPersons);
+        productCache.evictTeamAfterCommit(id);
         return teamRepository.save(m);
     }
 
     @Transactional
     public Optional<Team> update(Long id, Team input) {
         return teamRepository.findById(id).map(existing -> {
+            // La versión que el cliente leyó ya no es la vigente: otro cambió el módulo entretanto
+            if (input.getVersion() != null && !input.getVersion().equals(existing.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Team.class, id);
+            }
             existing.setDescription(input.getDescription());
             existing.setName(input.getName());
             existing.setNumPersons(input.getNumPersons());
+            productCache.evictTeamAfterCommit(id);
             return teamRepository.save(existing);
         });
     }
@@ -73,8 +94,20 @@ public class TeamService {
                 .orElseThrow(() -> new IllegalArgumentException("Team not found: " + teamId));
         Product p = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found: " + productId));
+        Team previous = p.getTeam();
         p.setTeam(m);
         productRepository.save(p);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(p));
+        if (previous == null || !teamId.equals(previous.getId())) {
+            int sam = p.getSamTotal() == null ? 0 : p.getSamTotal();
+            teamLoadTracker.record(previous, -sam, null);
+            teamLoadTracker.record(m, sam, null);
+        }
         return m;
     }
+
+    @Transactional
+    public int backfillLoadAggregates() {
+        return teamRepository.backfillSamTotals();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.carsil.userapi.analytics;
+
+import com.carsil.userapi.dto.AnalyticsPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static com.carsil.userapi.analytics.ProductAnalytics.Dimension.BRAND;
+import static com.carsil.userapi.analytics.ProductAnalytics.Dimension.CAMPAIGN;
+import static com.carsil.userapi.analytics.ProductAnalytics.Dimension.TEAM;
+import static com.carsil.userapi.analytics.ProductAnalytics.Interval.DAY;
+import static com.carsil.userapi.analytics.ProductAnalytics.Interval.WEEK;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductAnalyticsTest {
+
+    // Lunes
+    private static final LocalDate WEEK_1 = LocalDate.of(2025, 3, 3);
+    private static final LocalDate WEEK_2 = LocalDate.of(2025, 3, 10);
+
+    @TempDir
+    Path dir;
+
+    private SnapshotStore store;
+    private ProductAnalytics analytics;
+
+    @BeforeEach
+    void setup() throws Exception {
+        store = newStore(dir, 730);
+        analytics = new ProductAnalytics();
+        var field = ProductAnalytics.class.getDeclaredField("snapshotStore");
+        field.setAccessible(true);
+        field.set(analytics, store);
+    }
+
+    @Test
+    void snapshot_roundTripsThroughTheMappedFile() throws Exception {
+        ProductSnapshot.Builder builder = new ProductSnapshot.Builder(at(WEEK_1));
+        for (int i = 0; i < 3000; i++) {
+            builder.add(i, i % 2 == 0 ? 7L : null, "Módulo 7", "2025", "TENNIS", "PROCESO",
+                    100, i, null, 50, WEEK_1, i % 3 == 0 ? null : WEEK_2);
+        }
+        store.add(builder);
+
+        ProductSnapshot s = newStore(dir, 730).all().get(0);
+        assertThat(s.getRows()).isEqualTo(3000);
+        assertThat(s.getTakenAt()).isEqualTo(at(WEEK_1));
+        assertThat(s.productId(2999)).isEqualTo(2999);
+        assertThat(s.teams()).containsExactly("Módulo 7");
+        assertThat(s.teamId(s.team(0))).isEqualTo(7L);
+        assertThat(s.team(1)).isEqualTo(-1);
+        assertThat(s.brands().get(s.brand(5))).isEqualTo("TENNIS");
+        assertThat(s.quantityMade(2999)).isEqualTo(2999);
+        assertThat(s.missing(0)).isEqualTo(ProductSnapshot.NULL);
+        assertThat(s.plantEntryDate(0)).isEqualTo(ProductSnapshot.NULL);
+        assertThat(s.plantEntryDate(1)).isEqualTo(WEEK_2.toEpochDay());
+    }
+
+    @Test
+    void series_usesLastSnapshotOfEachWeek_andGroups() throws Exception {
+        // Semana 1: dos fotos, cuenta solo la del jueves
+        store.add(snapshot(WEEK_1, 0));
+        store.add(snapshot(WEEK_1.plusDays(3), 10));
+        store.add(snapshot(WEEK_2, 20));
+
+        List<AnalyticsPoint> points = analytics.series(WEEK_1, WEEK_2.plusDays(6), WEEK, List.of(TEAM), null, null);
+
+        assertThat(points).extracting(AnalyticsPoint::getPeriod).containsExactly(WEEK_1, WEEK_1, WEEK_1, WEEK_2, WEEK_2, WEEK_2);
+        AnalyticsPoint first = points.get(0);
+        assertThat(first.getTakenAt()).isEqualTo(at(WEEK_1.plusDays(3)));
+        assertThat(first.getGroup()).containsEntry("team", null);
+        assertThat(points.get(1).getGroup()).containsEntry("team", "Modulo 1");
+        assertThat(points.get(1).getProducts()).isEqualTo(2);
+        assertThat(points.get(1).getQuantity()).isEqualTo(200);
+        assertThat(points.get(1).getQuantityMade()).isEqualTo(20);
+        assertThat(points.get(1).getMadePct()).isEqualTo(10.0);
+        assertThat(points.get(4).getSamTotal()).isEqualTo(2 * (100 - 20) * 3);
+    }
+
+    @Test
+    void series_groupsByTwoDimensions_andFiltersByPlantEntry() throws Exception {
+        store.add(snapshot(WEEK_1, 50));
+
+        List<AnalyticsPoint> points = analytics.series(WEEK_1, WEEK_1, WEEK, List.of(BRAND, CAMPAIGN), null, null);
+        assertThat(points).extracting(p -> p.getGroup().get("brand") + "/" + p.getGroup().get("campaign"))
+                .containsExactly("BLANK/2024", "BLANK/2025", "TENNIS/2025");
+
+        List<AnalyticsPoint> entered = analytics.series(WEEK_1, WEEK_1, WEEK, List.of(), WEEK_2, WEEK_2);
+        assertThat(entered).singleElement().satisfies(p -> {
+            assertThat(p.getGroup()).isEmpty();
+            assertThat(p.getProducts()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void oneSnapshotPerDay_countsDaysInTheConfiguredZone_acrossUtcMidnight() throws Exception {
+        ZoneId bogota = ZoneId.of("America/Bogota");
+        store = newStore(dir, 730, bogota.getId());
+        var field = ProductAnalytics.class.getDeclaredField("snapshotStore");
+        field.setAccessible(true);
+        field.set(analytics, store);
+        LocalDate day = LocalDate.of(2025, 3, 10);
+        // La foto de las 23:30 del día 10 en Bogotá se toma a las 04:30 UTC del 11
+        Instant endOfDay = day.atTime(23, 30).atZone(bogota).toInstant();
+        Instant nextNight = day.plusDays(1).atTime(20, 0).atZone(bogota).toInstant();
+
+        store.add(snapshot(endOfDay, 0));
+        store.add(snapshot(day.plusDays(1).atTime(10, 0).atZone(bogota).toInstant(), 10));
+        store.add(snapshot(nextNight, 20));
+
+        assertThat(store.all()).extracting(ProductSnapshot::getTakenAt).containsExactly(endOfDay, nextNight);
+        List<AnalyticsPoint> points = analytics.series(day, day.plusDays(1), DAY, List.of(), null, null);
+        assertThat(points).extracting(AnalyticsPoint::getPeriod).containsExactly(day, day.plusDays(1));
+        assertThat(points).extracting(AnalyticsPoint::getQuantityMade).containsExactly(0L, 100L);
+    }
+
+    @Test
+    void oldSnapshotsArePruned_andInvalidQueriesRejected() throws Exception {
+        store = newStore(dir, 7);
+        store.add(snapshot(WEEK_1, 0));
+        store.add(snapshot(WEEK_2.plusDays(7), 0));
+
+        assertThat(store.all()).hasSize(1);
+        try (var files = Files.list(dir)) {
+            assertThat(files).hasSize(1);
+        }
+        assertThatThrownBy(() -> analytics.series(WEEK_2, WEEK_1, WEEK, List.of(), null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProductAnalytics.Dimension.of("price")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // 5 productos: 2 en Modulo 1, 2 en Modulo 2 y 1 sin módulo; quantity 100, sam 3
+    private static ProductSnapshot.Builder snapshot(LocalDate day, int made) {
+        return snapshot(at(day), made);
+    }
+
+    private static ProductSnapshot.Builder snapshot(Instant takenAt, int made) {
+        ProductSnapshot.Builder b = new ProductSnapshot.Builder(takenAt);
+        b.add(1, 1L, "Modulo 1", "2025", "TENNIS", "PROCESO", 100, made, 100 - made, (100 - made) * 3, WEEK_1, WEEK_2);
+        b.add(2, 1L, "Modulo 1", "2025", "TENNIS", "PROCESO", 100, made, 100 - made, (100 - made) * 3, WEEK_1, null);
+        b.add(3, 2L, "Modulo 2", "2025", "BLANK", "ASIGNADO", 100, made, 100 - made, (100 - made) * 3, WEEK_1, WEEK_2);
+        b.add(4, 2L, "Modulo 2", "2024", "BLANK", "ASIGNADO", 100, made, 100 - made, (100 - made) * 3, WEEK_1, null);
+        b.add(5, null, null, "2025", "BLANK", "PROCESO", 100, made, 100 - made, (100 - made) * 3, WEEK_1, null);
+        return b;
+    }
+
+    private static Instant at(LocalDate day) {
+        return day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static SnapshotStore newStore(Path dir, int retentionDays) throws Exception {
+        return newStore(dir, retentionDays, null);
+    }
+
+    private static SnapshotStore newStore(Path dir, int retentionDays, String zone) throws Exception {
+        SnapshotStore store = new SnapshotStore();
+        var zoneId = SnapshotStore.class.getDeclaredField("zoneId");
+        zoneId.setAccessible(true);
+        zoneId.set(store, zone);
+        var path = SnapshotStore.class.getDeclaredField("dir");
+        path.setAccessible(true);
+        path.set(store, dir);
+        var retention = SnapshotStore.class.getDeclaredField("retentionDays");
+        retention.setAccessible(true);
+        retention.set(store, retentionDays);
+        store.load();
+        return store;
+    }
+}
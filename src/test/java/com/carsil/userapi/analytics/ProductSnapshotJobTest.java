@@ -0,0 +1,100 @@
+package com.carsil.userapi.analytics;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({ProductSnapshotJob.class, SnapshotStore.class})
+class ProductSnapshotJobTest {
+
+    @TempDir
+    static Path dir;
+
+    @DynamicPropertySource
+    static void analyticsDir(DynamicPropertyRegistry registry) {
+        registry.add("carsil.analytics.dir", dir::toString);
+    }
+
+    @Autowired
+    private ProductSnapshotJob job;
+
+    @Autowired
+    private SnapshotStore store;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void takeSnapshot_copiesProductMetricsIntoColumns() {
+        Team team = new Team();
+        team.setName("Modulo 1");
+        entityManager.persist(team);
+        entityManager.persist(product("100", team, 40));
+        entityManager.persist(product("101", null, 0));
+        entityManager.flush();
+
+        ProductSnapshot s = job.takeSnapshot();
+
+        assertThat(s.getRows()).isEqualTo(2);
+        assertThat(store.all()).extracting(ProductSnapshot::getTakenAt).contains(s.getTakenAt());
+        int withTeam = s.team(0) >= 0 ? 0 : 1;
+        assertThat(s.teams().get(s.team(withTeam))).isEqualTo("Modulo 1");
+        assertThat(s.team(1 - withTeam)).isEqualTo(-1);
+        assertThat(s.quantity(withTeam)).isEqualTo(100);
+        assertThat(s.quantityMade(withTeam)).isEqualTo(40);
+        assertThat(s.brands().get(s.brand(withTeam))).isEqualTo("TENNIS");
+        assertThat(s.statuses().get(s.status(withTeam))).isEqualTo("PROCESO");
+        assertThat(s.campaigns().get(s.campaign(withTeam))).isEqualTo("2025");
+        assertThat(s.plantEntryDate(withTeam)).isEqualTo(LocalDate.of(2025, 3, 10).toEpochDay());
+    }
+
+    @Test
+    void takeSnapshot_replacesEarlierSnapshotOfSameDay() throws Exception {
+        entityManager.persist(product("100", null, 0));
+        entityManager.flush();
+
+        ProductSnapshot first = job.takeSnapshot();
+        ProductSnapshot second = job.takeSnapshot();
+
+        assertThat(store.all()).extracting(ProductSnapshot::getTakenAt)
+                .contains(second.getTakenAt()).doesNotContain(first.getTakenAt());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files.filter(f -> f.toString().endsWith(".snap"))).hasSameSizeAs(store.all());
+        }
+    }
+
+    private static Product product(String op, Team team, int made) {
+        Product p = new Product();
+        p.setOp(op);
+        p.setReference("1");
+        p.setCampaign("2025");
+        p.setType("T1");
+        p.setPrice(BigDecimal.TEN);
+        p.setBrand(Brand.TENNIS);
+        p.setAssignedDate(LocalDate.of(2025, 3, 1));
+        p.setPlantEntryDate(LocalDate.of(2025, 3, 10));
+        p.setQuantityMade(made);
+        p.setTeam(team);
+        p.setSizeQuantities(SizeQuantities.of(Map.of("S", 100)));
+        return p;
+    }
+}
@@ -0,0 +1,156 @@
+package com.carsil.userapi.cache;
+
+import com.carsil.userapi.dto.CacheStats;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.Team;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private ProductCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() throws Exception {
+        cache = new ProductCache();
+        var size = ProductCache.class.getDeclaredField("maxSize");
+        size.setAccessible(true);
+        size.set(cache, 100L);
+        var ttl = ProductCache.class.getDeclaredField("ttlSeconds");
+        ttl.setAccessible(true);
+        ttl.set(cache, 60L);
+        cache.init();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getById_loadsOnce_andCountsHitsAndMisses() {
+        Product p = product(1L, "100", team(7L));
+
+        cache.getById(1L, id -> load(p));
+        cache.getById(1L, id -> load(p));
+        Product missing = cache.getById(2L, id -> null);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(missing).isNull();
+        CacheStats byId = cache.stats().get(0);
+        assertThat(byId.getHitCount()).isEqualTo(1);
+        assertThat(byId.getMissCount()).isEqualTo(2);
+        assertThat(byId.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void loadRacingAnEviction_isReturnedButNotCached() {
+        Product stale = product(1L, "100", team(7L));
+
+        Product result = cache.getById(1L, id -> {
+            // Otra petición hace commit de un cambio del producto mientras esta carga está en vuelo
+            cache.evictProduct(product(1L, "100", team(7L)));
+            return load(stale);
+        });
+
+        assertThat(result).isSameAs(stale);
+        assertThat(cache.stats().get(0).getSize()).isZero();
+        cache.getById(1L, id -> load(stale));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void productChange_evictsItsIdAndBothOps() {
+        Team t = team(7L);
+        Product before = product(1L, "100", t);
+        cache.getById(1L, id -> before);
+        cache.getByOp("100", op -> List.of(before));
+        cache.getByOp("200", op -> List.of());
+
+        // la OP cambió de 100 a 200
+        cache.onProductChanged(ProductChangedEvent.saved(product(1L, "200", t)));
+
+        cache.getById(1L, id -> load(before));
+        cache.getByOp("100", op -> { loads.incrementAndGet(); return List.of(); });
+        cache.getByOp("200", op -> { loads.incrementAndGet(); return List.of(); });
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void productChange_evictsOtherProductsOfOldAndNewTeam() {
+        Product sibling = product(2L, "300", team(7L));
+        Product other = product(3L, "400", team(8L));
+        Product unrelated = product(4L, "500", team(9L));
+        Product moved = product(1L, "100", team(7L));
+        cache.getById(1L, id -> moved);
+        cache.getById(2L, id -> sibling);
+        cache.getById(3L, id -> other);
+        cache.getById(4L, id -> unrelated);
+
+        // pasa del módulo 7 al 8: ambos cambian de carga
+        cache.onProductChanged(ProductChangedEvent.saved(product(1L, "100", team(8L))));
+
+        cache.getById(2L, id -> load(sibling));
+        cache.getById(3L, id -> load(other));
+        cache.getById(4L, id -> load(unrelated));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void evictTeamAfterCommit_withoutTransaction_evictsImmediately() {
+        Product p = product(1L, "100", team(7L));
+        cache.getByOp("100", op -> List.of(p));
+
+        cache.evictTeamAfterCommit(7L);
+
+        cache.getByOp("100", op -> { loads.incrementAndGet(); return List.of(p); });
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void eviction_usesAndCleansReverseIndexes() throws Exception {
+        Product p = product(1L, "100", team(7L));
+        cache.getById(1L, id -> p);
+        cache.getByOp("100", op -> List.of(p));
+        cache.evictTeamAfterCommit(7L);
+
+        // Vuelve a cachearse tras la invalidación: el índice tiene que seguir encontrándolo
+        cache.getById(1L, id -> load(p));
+        cache.getByOp("100", op -> load(List.of(p)));
+        cache.evictProduct(product(1L, "100", team(7L)));
+
+        assertThat(cache.stats()).allMatch(stats -> stats.getSize() == 0);
+        for (String index : List.of("idsByTeam", "opsByTeam", "opsByProduct")) {
+            var field = ProductCache.class.getDeclaredField(index);
+            field.setAccessible(true);
+            assertThat(((KeyIndex<?, ?>) field.get(cache)).groups()).as(index).isZero();
+        }
+    }
+
+    private List<Product> load(List<Product> list) {
+        loads.incrementAndGet();
+        return list;
+    }
+
+    private Product load(Product p) {
+        loads.incrementAndGet();
+        return p;
+    }
+
+    private static Product product(Long id, String op, Team team) {
+        Product p = new Product();
+        p.setId(id);
+        p.setOp(op);
+        p.setTeam(team);
+        return p;
+    }
+
+    private static Team team(Long id) {
+        Team t = new Team();
+        t.setId(id);
+        return t;
+    }
+}
@@ -0,0 +1,63 @@
+package com.carsil.userapi.controller;
+
+import com.carsil.userapi.analytics.ProductAnalytics;
+import com.carsil.userapi.analytics.ProductSnapshotJob;
+import com.carsil.userapi.dto.AnalyticsPoint;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalyticsController.class)
+@WithMockUser(username = "test", roles = {"USER"})
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ProductAnalytics productAnalytics;
+
+    @MockBean
+    private ProductSnapshotJob productSnapshotJob;
+
+    @Test
+    void getSeries_parsesIntervalAndDimensions() throws Exception {
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        Mockito.when(productAnalytics.series(eq(monday), eq(monday.plusDays(27)), eq(ProductAnalytics.Interval.WEEK),
+                        eq(List.of(ProductAnalytics.Dimension.BRAND, ProductAnalytics.Dimension.CAMPAIGN)), isNull(), isNull()))
+                .thenReturn(List.of(AnalyticsPoint.builder().period(monday)
+                        .group(Map.of("brand", "TENNIS")).quantity(100).quantityMade(25).madePct(25.0).build()));
+
+        mvc.perform(get("/api/analytics/series")
+                        .param("from", "2025-03-03").param("to", "2025-03-30")
+                        .param("interval", "WEEK").param("groupBy", "brand,campaign"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].period", is("2025-03-03")))
+                .andExpect(jsonPath("$[0].group.brand", is("TENNIS")))
+                .andExpect(jsonPath("$[0].madePct", is(25.0)));
+    }
+
+    @Test
+    void getSeries_returns400_forUnknownDimension() throws Exception {
+        mvc.perform(get("/api/analytics/series")
+                        .param("from", "2025-03-03").param("to", "2025-03-30").param("groupBy", "price"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(productAnalytics, Mockito.never()).series(any(), any(), any(), any(), any(), any());
+    }
+}
@@ -1,5 +1,7 @@
 package com.carsil.userapi.controller;
 
+import com.carsil.userapi.exception.LoginThrottledException;
+import com.carsil.userapi.security.AuthTokenService;
 import com.carsil.userapi.service.UserService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -27,15 +29,36 @@ class AuthControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private AuthTokenService tokenService;
+
 
     @Test
     void login_returns200_onValidCredentials() throws Exception {
+        Mockito.when(tokenService.issue("luis")).thenReturn("tok-123");
+        Mockito.when(tokenService.ttlSeconds()).thenReturn(1800L);
+
         mvc.perform(post("/api/auth/login")
                         .with(csrf())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"userName\":\"luis\",\"password\":\"secret\"}"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message", is("Login successful")));
+                .andExpect(jsonPath("$.message", is("Login successful")))
+                .andExpect(jsonPath("$.token", is("tok-123")))
+                .andExpect(jsonPath("$.expiresIn", is("1800")));
+    }
+
+    @Test
+    void login_returns503_whenVerificationPoolIsFull() throws Exception {
+        Mockito.doThrow(new LoginThrottledException("Demasiados inicios de sesión en curso"))
+                .when(userService).validateLogin("luis", "secret");
+
+        mvc.perform(post("/api/auth/login")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userName\":\"luis\",\"password\":\"secret\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
     }
 
     @Test
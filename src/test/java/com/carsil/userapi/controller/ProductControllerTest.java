@@ -1,8 +1,21 @@
 package com.carsil.userapi.controller;
 
+import com.carsil.userapi.dto.AutocompleteSuggestion;
+import com.carsil.userapi.dto.ImportReport;
+import com.carsil.userapi.dto.ProductPage;
+import com.carsil.userapi.dto.ProgressResult;
+import com.carsil.userapi.dto.SizeProgressUpdate;
+import com.carsil.userapi.exporter.ExportFormat;
+import com.carsil.userapi.feed.ProgressFeed;
 import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
 import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.Size;
+import com.carsil.userapi.search.ProductAutocomplete;
+import com.carsil.userapi.service.ProductExportService;
+import com.carsil.userapi.service.ProductImportService;
 import com.carsil.userapi.service.ProductService;
+import com.carsil.userapi.service.ProgressCoalescer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,20 +24,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ProductController.class)
@@ -37,6 +63,21 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private ProgressCoalescer progressCoalescer;
+
+    @MockBean
+    private ProductAutocomplete productAutocomplete;
+
+    @MockBean
+    private ProgressFeed progressFeed;
+
     private ObjectMapper objectMapper;
 
     @BeforeEach
@@ -67,6 +108,49 @@ class ProductControllerTest {
 
 
 
+    @Test
+    void getProductsPage_returnsItemsAndNextCursor() throws Exception {
+        Product p1 = new Product();
+        p1.setId(11L);
+        Product p2 = new Product();
+        p2.setId(12L);
+
+        Mockito.when(productService.getPage(10L, 2)).thenReturn(new ProductPage(List.of(p1, p2), 12L));
+
+        mvc.perform(get("/api/products/page")
+                        .param("after", "10")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].id", is(12)))
+                .andExpect(jsonPath("$.nextCursor", is(12)));
+    }
+
+    @Test
+    void getProductsPage_returnsNullCursor_onLastPage() throws Exception {
+        Mockito.when(productService.getPage(null, 100)).thenReturn(new ProductPage(List.of(), null));
+
+        mvc.perform(get("/api/products/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void autocomplete_returnsSuggestionsFromTries() throws Exception {
+        Mockito.when(productAutocomplete.suggest("452", 5)).thenReturn(List.of(
+                new AutocompleteSuggestion("4521", "op", 1, List.of(7L)),
+                new AutocompleteSuggestion("45210", "reference", 2, List.of(3L, 9L))));
+
+        mvc.perform(get("/api/products/autocomplete")
+                        .param("prefix", "452")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].field", is("op")))
+                .andExpect(jsonPath("$[1].productCount", is(2)));
+    }
+
     @Test
     void createProduct_callsService_andReturnsSaved() throws Exception {
         Product productToSave = new Product();
@@ -95,6 +179,73 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.reference", is("NEW_REF")));
     }
 
+    @Test
+    void importProducts_passesUploadAndCharset_andReturnsReport() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "ordenes.csv", "text/csv", "op;price\n".getBytes());
+        Mockito.when(productImportService.importFile(any(), eq(StandardCharsets.ISO_8859_1))).thenReturn(
+                ImportReport.builder().rows(3).inserted(2).duplicates(1).elapsedMs(5)
+                        .errors(List.of(new ImportReport.RowError(3, "100", "op already exists"))).build());
+
+        mvc.perform(multipart("/api/products/import").file(file).param("charset", "ISO-8859-1").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted", is(2)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)));
+    }
+
+    @Test
+    void exportProducts_streamsTheServiceOutput_asAttachment() throws Exception {
+        Mockito.doAnswer(inv -> {
+            inv.getArgument(3, java.io.OutputStream.class).write("{\"op\":\"100\"}\n".getBytes());
+            return null;
+        }).when(productExportService).export(eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 1, 31)),
+                eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mvc.perform(get("/api/products/export")
+                        .param("startDate", "2025-01-01").param("endDate", "2025-01-31").param("format", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products_2025-01-01_2025-01-31.ndjson\""))
+                .andExpect(content().string("{\"op\":\"100\"}\n"));
+    }
+
+    @Test
+    void feed_subscribesWithTeamAndBrandFilters() throws Exception {
+        Mockito.when(progressFeed.subscribe(any(), any())).thenReturn(Optional.of(new SseEmitter()));
+
+        mvc.perform(get("/api/products/feed")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .param("teamId", "1", "2")
+                        .param("brand", "tennis sas"))
+                .andExpect(request().asyncStarted());
+
+        Mockito.verify(progressFeed).subscribe(Set.of(1L, 2L), Set.of(Brand.TENNIS));
+    }
+
+    @Test
+    void feed_returns503_whenFull_and400_forUnknownBrand() throws Exception {
+        Mockito.when(progressFeed.subscribe(any(), any())).thenReturn(Optional.empty());
+
+        mvc.perform(get("/api/products/feed").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "5"));
+        mvc.perform(get("/api/products/feed").param("brand", "NIKE"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportProducts_returns400_forUnknownFormatOrInvertedRange() throws Exception {
+        mvc.perform(get("/api/products/export")
+                        .param("startDate", "2025-01-01").param("endDate", "2025-01-31").param("format", "xlsx"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/products/export").param("startDate", "2025-02-01").param("endDate", "2025-01-31"))
+                .andExpect(status().isBadRequest());
+        Mockito.verifyNoInteractions(productExportService);
+    }
+
     @Test
     void updateProduct_callsService_andReturnsUpdated() throws Exception {
         Product productToUpdate = new Product();
@@ -123,6 +274,110 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.reference", is("UPDATED_REF")));
     }
 
+    @Test
+    void updateProduct_returns409_whenVersionIsStale() throws Exception {
+        Mockito.when(productService.update(any(Product.class), eq(12L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 12L));
+
+        mvc.perform(put("/api/products/12")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"version\":3,\"sam\":2.0}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void applyProgressBatch_returnsPerItemResults() throws Exception {
+        Mockito.when(productService.applyProgressBatch(any())).thenReturn(List.of(
+                ProgressResult.builder().productId(1L).delta(5).success(true).quantityMade(7).missing(3).build(),
+                ProgressResult.builder().productId(1L).delta(2).success(true).quantityMade(7).missing(3).build(),
+                ProgressResult.builder().productId(2L).delta(50).success(false)
+                        .error("quantityMade cannot exceed total quantity").build()));
+
+        mvc.perform(post("/api/products/progress/batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":1,\"delta\":5},{\"productId\":1,\"delta\":2},{\"productId\":2,\"delta\":50}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[1].delta", is(2)))
+                .andExpect(jsonPath("$[1].quantityMade", is(7)))
+                .andExpect(jsonPath("$[2].success", is(false)))
+                .andExpect(jsonPath("$[2].error", is("quantityMade cannot exceed total quantity")));
+    }
+
+    @Test
+    void applySizeProgress_parsesSizes_andReturnsMadeBySize() throws Exception {
+        Mockito.when(productService.applySizeProgressBatch(any())).thenReturn(List.of(
+                ProgressResult.builder().productId(1L).delta(5).success(true).quantityMade(5).missing(15)
+                        .sizeMade(SizeQuantities.of(Map.of("S", 3, "M", 2))).build()));
+
+        mvc.perform(post("/api/products/progress/sizes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":1,\"size\":\"S\",\"delta\":3},{\"productId\":1,\"size\":\"m\",\"delta\":2}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sizeMade.S", is(3)))
+                .andExpect(jsonPath("$[0].sizeMade.M", is(2)));
+
+        Mockito.verify(productService).applySizeProgressBatch(List.of(
+                new SizeProgressUpdate(1L, Size.S, 3), new SizeProgressUpdate(1L, Size.M, 2)));
+    }
+
+    @Test
+    void applySizeProgress_returns400_whenAnyItemIsInvalid() throws Exception {
+        Mockito.when(productService.applySizeProgressBatch(any()))
+                .thenThrow(new IllegalArgumentException("Product 1: Units made of size M cannot exceed its 10 units"));
+
+        mvc.perform(post("/api/products/progress/sizes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":1,\"size\":\"M\",\"delta\":11}]"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(post("/api/products/progress/sizes")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"productId\":1,\"size\":\"XXXL\",\"delta\":1}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void incrementProgress_returnsUpdatedProduct_whenCoalescingDisabled() throws Exception {
+        Product updated = new Product();
+        updated.setId(7L);
+        updated.setQuantityMade(4);
+        Mockito.when(productService.incrementMade(7L, 4)).thenReturn(updated);
+
+        mvc.perform(patch("/api/products/7/progress")
+                        .with(csrf())
+                        .param("delta", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantityMade", is(4)));
+    }
+
+    @Test
+    void incrementProgress_isAccepted_whenCoalescingEnabled() throws Exception {
+        Mockito.when(progressCoalescer.isEnabled()).thenReturn(true);
+
+        mvc.perform(patch("/api/products/7/progress")
+                        .with(csrf())
+                        .param("delta", "4"))
+                .andExpect(status().isAccepted());
+
+        Mockito.verify(progressCoalescer).submit(7L, 4);
+        Mockito.verify(productService, Mockito.never()).incrementMade(any(), Mockito.anyInt());
+    }
+
+    @Test
+    void getProduct_returns503_whenConnectionPoolIsExhausted() throws Exception {
+        Mockito.when(productService.getById(9L)).thenThrow(
+                new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        mvc.perform(get("/api/products/9"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     void deleteProduct_callsService() throws Exception {
         Mockito.doNothing().when(productService).delete(5L);
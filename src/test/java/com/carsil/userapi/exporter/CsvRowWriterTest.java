@@ -0,0 +1,33 @@
+package com.carsil.userapi.exporter;
+
+import com.carsil.userapi.importer.CsvRowReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowWriterTest {
+
+    @Test
+    void quotesOnlyWhereNeeded_andReadsBackWithTheImporter() throws Exception {
+        StringWriter out = new StringWriter();
+        try (CsvRowWriter writer = new CsvRowWriter(out, List.of("op", "description", "price", "assignedDate"))) {
+            writer.write(Arrays.asList("100", "Jean, \"azul\"\nlínea 2", new BigDecimal("1E+4"), LocalDate.of(2025, 1, 2)));
+            writer.write(Arrays.asList("101", null, new BigDecimal("9.5"), null));
+        }
+
+        assertThat(out.toString()).isEqualTo("op,description,price,assignedDate\r\n"
+                + "100,\"Jean, \"\"azul\"\"\nlínea 2\",10000,2025-01-02\r\n"
+                + "101,,9.5,\r\n");
+
+        CsvRowReader reader = new CsvRowReader(new StringReader(out.toString()));
+        reader.next();
+        assertThat(reader.next()).containsExactly("100", "Jean, \"azul\"\nlínea 2", "10000", "2025-01-02");
+    }
+}
@@ -0,0 +1,164 @@
+package com.carsil.userapi.feed;
+
+import com.carsil.userapi.config.EnumCodecModule;
+import com.carsil.userapi.event.ProductChangedEvent;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressFeedTest {
+
+    private SimpleMeterRegistry registry;
+    private ProgressFeed feed;
+
+    @BeforeEach
+    void setup() throws Exception {
+        registry = new SimpleMeterRegistry();
+        feed = new ProgressFeed();
+        set("objectMapper", new ObjectMapper().registerModule(new EnumCodecModule()));
+        set("registry", registry);
+        set("bufferSize", 4);
+        set("maxClients", 3);
+        feed.registerMetrics();
+    }
+
+    @AfterEach
+    void close() {
+        feed.closeAll();
+    }
+
+    @Test
+    void publishesCompactChanges_onlyToMatchingClients() throws Exception {
+        RecordingEmitter all = new RecordingEmitter(null);
+        RecordingEmitter team1 = new RecordingEmitter(null);
+        RecordingEmitter elede = new RecordingEmitter(null);
+        feed.connect(all, Set.of(), Set.of());
+        feed.connect(team1, Set.of(1L), Set.of());
+        feed.connect(elede, Set.of(), Set.of(Brand.ELEDE));
+
+        feed.onProductChanged(ProductChangedEvent.saved(product(10L, 1L, Brand.TENNIS, 7)));
+        feed.onProductChanged(ProductChangedEvent.saved(product(11L, null, Brand.ELEDE, 3)));
+
+        assertThat(all.next()).contains("ping");
+        assertThat(all.next()).contains("event:product").contains("\"id\":10").contains("\"teamId\":1")
+                .contains("\"quantityMade\":7").contains("\"type\":\"SAVED\"").doesNotContain("price");
+        assertThat(all.next()).contains("\"id\":11").doesNotContain("teamId");
+        assertThat(team1.next()).contains("ping");
+        assertThat(team1.next()).contains("\"id\":10");
+        assertThat(elede.next()).contains("ping");
+        assertThat(elede.next()).contains("\"id\":11");
+
+        // Cupo de 3 clientes
+        assertThat(feed.connect(new RecordingEmitter(null), Set.of(), Set.of())).isEmpty();
+        assertThat(registry.get("carsil.feed.clients").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void slowClient_dropsOldest_withoutDelayingOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        feed.connect(slow, Set.of(), Set.of());
+        feed.connect(fast, Set.of(), Set.of());
+        // El envío del ping inicial queda trabado: desde aquí todo se acumula en la cola de 4
+        assertThat(slow.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // El rápido recibe cada cambio mientras el lento sigue trabado
+        assertThat(fast.next()).contains("ping");
+        for (long id = 1; id <= 10; id++) {
+            feed.onProductChanged(ProductChangedEvent.saved(product(id, 1L, Brand.TENNIS, 1)));
+            assertThat(fast.next()).contains("\"id\":" + id + ",");
+        }
+
+        release.countDown();
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 6; i++) received.add(slow.next());
+        assertThat(received.get(0)).contains("ping");
+        assertThat(received.get(1)).contains("event:dropped").contains("{\"count\":6}");
+        for (int i = 0; i < 4; i++) assertThat(received.get(2 + i)).contains("\"id\":" + (7 + i) + ",");
+        assertThat(registry.get("carsil.feed.dropped").functionCounter().count()).isEqualTo(6);
+    }
+
+    @Test
+    void failedSend_removesClient() throws Exception {
+        RecordingEmitter gone = new RecordingEmitter(null);
+        gone.fail = true;
+        feed.connect(gone, Set.of(), Set.of());
+
+        for (int i = 0; i < 50 && feed.clientCount() > 0; i++) Thread.sleep(10);
+        assertThat(feed.clientCount()).isZero();
+    }
+
+    private static Product product(Long id, Long teamId, Brand brand, int made) {
+        Product p = new Product();
+        p.setId(id);
+        p.setOp(String.valueOf(500 + id));
+        p.setBrand(brand);
+        p.setQuantity(10);
+        p.setQuantityMade(made);
+        p.setMissing(10 - made);
+        if (teamId != null) {
+            Team t = new Team();
+            t.setId(teamId);
+            p.setTeam(t);
+        }
+        return p;
+    }
+
+    private void set(String name, Object value) throws Exception {
+        var field = ProgressFeed.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(feed, value);
+    }
+
+    // Guarda el texto de cada envío; con release, el primero se queda esperando hasta que lo suelten
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean fail;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) throw new IOException("Broken pipe");
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            entered.countDown();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(text.toString());
+        }
+
+        String next() throws InterruptedException {
+            String text = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(text).as("event within 5 s").isNotNull();
+            return text;
+        }
+    }
+}
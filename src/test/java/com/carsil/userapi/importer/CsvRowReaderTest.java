@@ -0,0 +1,44 @@
+package com.carsil.userapi.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRowReaderTest {
+
+    @Test
+    void readsQuotedCells_escapedQuotes_andLineBreaksInsideQuotes() throws Exception {
+        CsvRowReader reader = new CsvRowReader(new StringReader(
+                "op,description,price\r\n100,\"Jean, azul\",15000\r\n101,\"Dice \"\"hola\"\"\nen dos líneas\",9\n"));
+
+        assertThat(reader.next()).containsExactly("op", "description", "price");
+        assertThat(reader.next()).containsExactly("100", "Jean, azul", "15000");
+        assertThat(reader.line()).isEqualTo(2);
+        assertThat(reader.next()).containsExactly("101", "Dice \"hola\"\nen dos líneas", "9");
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void detectsSemicolonDelimiter_andSkipsBom() throws Exception {
+        CsvRowReader reader = new CsvRowReader(new StringReader("\uFEFFop;price;S\n100;15000,50;\n"));
+
+        assertThat(reader.next()).containsExactly("op", "price", "S");
+        assertThat(reader.next()).isEqualTo(List.of("100", "15000,50", ""));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void unclosedQuote_isRejected() throws Exception {
+        CsvRowReader reader = new CsvRowReader(new StringReader("op,description\n100,\"sin cerrar\n"));
+        reader.next();
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+    }
+}
@@ -0,0 +1,69 @@
+package com.carsil.userapi.importer;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.ProductionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductRowMapperTest {
+
+    private static final List<String> HEADER = List.of("OP", "Reference", "campaign", "type", "price",
+            "Assigned Date", "brand", "status", "sam", "teamId", "S", "m", "XL");
+
+    @Test
+    void mapsRowByHeaderName_includingExcelNumbersAndSizeColumns() {
+        ProductRowMapper mapper = new ProductRowMapper(HEADER);
+
+        Product p = mapper.map(List.of("100001.0", "45210", "2025", "T1", "15000,50",
+                "45658", "TENNIS SAS", "confección", "12.5", "3", "10", "20", ""));
+
+        assertThat(p.getOp()).isEqualTo("100001");
+        assertThat(p.getPrice()).isEqualByComparingTo(new BigDecimal("15000.50"));
+        assertThat(p.getAssignedDate()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(p.getBrand()).isEqualTo(Brand.TENNIS);
+        assertThat(p.getStatus()).isEqualTo(ProductionStatus.CONFECCION);
+        assertThat(p.getSam()).isEqualTo(12.5);
+        assertThat(p.getTeam().getId()).isEqualTo(3L);
+        assertThat(p.getSizeQuantities().toMap()).isEqualTo(Map.of("S", 10, "M", 20));
+    }
+
+    @Test
+    void acceptsIsoAndDayMonthYearDates_andDefaultsBrandAndStatus() {
+        ProductRowMapper mapper = new ProductRowMapper(
+                List.of("op", "reference", "campaign", "type", "price", "assignedDate", "plant_entry_date", "S"));
+
+        Product p = mapper.map(List.of("7", "1", "2025", "T1", "100", "2025-03-04", "5/3/2025", "4"));
+
+        assertThat(p.getAssignedDate()).isEqualTo(LocalDate.of(2025, 3, 4));
+        assertThat(p.getPlantEntryDate()).isEqualTo(LocalDate.of(2025, 3, 5));
+        assertThat(p.getBrand()).isEqualTo(Brand.BLANK);
+        assertThat(p.getStatus()).isEqualTo(ProductionStatus.PROCESO);
+    }
+
+    @Test
+    void header_rejectsUnknownAndMissingColumns() {
+        assertThatThrownBy(() -> new ProductRowMapper(List.of("op", "color")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown column: color");
+        assertThatThrownBy(() -> new ProductRowMapper(List.of("op", "price", "S")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Missing columns: assigneddate, campaign, reference, type");
+    }
+
+    @Test
+    void unreadableCell_namesTheField() {
+        ProductRowMapper mapper = new ProductRowMapper(HEADER);
+
+        assertThatThrownBy(() -> mapper.map(List.of("1", "1", "1", "T", "100", "2025-01-01", "", "", "", "", "diez", "", "")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("S: not an integer 'diez'");
+    }
+}
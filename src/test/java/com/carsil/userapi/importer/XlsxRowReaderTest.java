@@ -0,0 +1,93 @@
+package com.carsil.userapi.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class XlsxRowReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsSharedAndInlineStrings_andFillsSkippedCells() throws Exception {
+        Path file = workbook(Map.of(
+                "xl/sharedStrings.xml", """
+                        <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+                          <si><t>op</t></si><si><t>price</t></si>
+                          <si><r><t>Jean </t></r><r><t>azul</t></r></si>
+                        </sst>""",
+                "xl/worksheets/sheet1.xml", """
+                        <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>
+                          <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="s"><v>1</v></c><c r="D1" t="s"><v>2</v></c></row>
+                          <row r="3"><c r="A3"><v>100001</v></c><c r="C3" t="inlineStr"><is><t>nota</t></is></c></row>
+                        </sheetData></worksheet>"""));
+
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            assertThat(reader.next()).containsExactly("op", "price", "", "Jean azul");
+            assertThat(reader.next()).containsExactly("100001", "", "nota");
+            assertThat(reader.line()).isEqualTo(3);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void followsWorkbookRelationshipToFirstSheet() throws Exception {
+        Path file = workbook(Map.of(
+                "xl/workbook.xml", """
+                        <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"
+                                  xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+                          <sheets><sheet name="Ordenes" sheetId="1" r:id="rId7"/></sheets>
+                        </workbook>""",
+                "xl/_rels/workbook.xml.rels", """
+                        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                          <Relationship Id="rId7" Target="worksheets/ordenes.xml"/>
+                        </Relationships>""",
+                "xl/worksheets/ordenes.xml", """
+                        <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>
+                          <row r="1"><c r="A1" t="inlineStr"><is><t>op</t></is></c></row>
+                        </sheetData></worksheet>"""));
+
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            assertThat(reader.next()).containsExactly("op");
+        }
+    }
+
+    @Test
+    void notAZip_isRejected() throws Exception {
+        Path file = dir.resolve("plano.xlsx");
+        Files.writeString(file, "op,price\n");
+
+        assertThatThrownBy(() -> new XlsxRowReader(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void columnIndex_readsMultiLetterReferences() {
+        assertThat(XlsxRowReader.columnIndex("A1")).isZero();
+        assertThat(XlsxRowReader.columnIndex("Z9")).isEqualTo(25);
+        assertThat(XlsxRowReader.columnIndex("AB12")).isEqualTo(27);
+    }
+
+    private Path workbook(Map<String, String> entries) throws IOException {
+        Path file = dir.resolve("libro.xlsx");
+        try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (var entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,73 @@
+package com.carsil.userapi.metrics;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.enums.Size;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ProductMetrics metrics;
+
+    @BeforeEach
+    void setup() throws Exception {
+        registry = new SimpleMeterRegistry();
+        metrics = new ProductMetrics();
+        var field = ProductMetrics.class.getDeclaredField("registry");
+        field.setAccessible(true);
+        field.set(metrics, registry);
+    }
+
+    @Test
+    void progressTicks_countsBySource() {
+        metrics.progressTicks("single", 1);
+        metrics.progressTicks("batch", 250);
+        metrics.progressTicks("batch", 0);
+
+        assertThat(registry.get("carsil.progress.ticks").tag("source", "single").counter().count()).isEqualTo(1);
+        assertThat(registry.get("carsil.progress.ticks").tag("source", "batch").counter().count()).isEqualTo(250);
+    }
+
+    @Test
+    void progressRejected_tagsReasonFromProductState() {
+        metrics.progressRejected(product(10, 2), -3);
+        metrics.progressRejected(product(10, 8), 5);
+        metrics.progressRejected(product(10, 8), 3);
+        metrics.progressRejected(product(null, 0), 1);
+
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "negative").counter().count()).isEqualTo(1);
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "exceeds_quantity").counter().count()).isEqualTo(2);
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "quantity_not_set").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeProgressRejected_tagsSizeReason_beforeTotalReason() {
+        Product p = product(10, 4);
+        p.setSizeQuantities(SizeQuantities.of(Map.of("S", 6, "M", 4)));
+        p.getSizeMade().set(Size.S, 4);
+
+        metrics.progressRejected(p, Size.XL, 1);
+        metrics.progressRejected(p, Size.S, -5);
+        metrics.progressRejected(p, Size.S, 3);
+        metrics.progressRejected(p, Size.M, 2);
+
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "size_not_in_product").counter().count()).isEqualTo(1);
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "size_negative").counter().count()).isEqualTo(1);
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "size_exceeds_quantity").counter().count()).isEqualTo(1);
+        assertThat(registry.get("carsil.progress.rejections").tag("reason", "other").counter().count()).isEqualTo(1);
+    }
+
+    private static Product product(Integer quantity, int made) {
+        Product p = new Product();
+        p.setQuantity(quantity);
+        p.setQuantityMade(made);
+        return p;
+    }
+}
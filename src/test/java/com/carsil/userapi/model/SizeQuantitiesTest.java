@@ -0,0 +1,48 @@
+package com.carsil.userapi.model;
+
+import com.carsil.userapi.model.enums.Size;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SizeQuantitiesTest {
+
+    // Los bits están guardados en size_units: si esta prueba falla, las filas existentes se leerían mal
+    @Test
+    void sizeBits_areFixedAndUnique() {
+        Map<Size, Integer> bits = new LinkedHashMap<>();
+        for (Size size : Size.values()) bits.put(size, size.getBit());
+
+        assertThat(bits).containsExactly(
+                Map.entry(Size.T2, 0), Map.entry(Size.T4, 1), Map.entry(Size.T6, 2), Map.entry(Size.T8, 3),
+                Map.entry(Size.T10, 4), Map.entry(Size.T12, 5), Map.entry(Size.T14, 6), Map.entry(Size.T16, 7),
+                Map.entry(Size.XS, 8), Map.entry(Size.S, 9), Map.entry(Size.M, 10), Map.entry(Size.L, 11),
+                Map.entry(Size.XL, 12), Map.entry(Size.XXL, 13));
+        assertThat(bits.values()).doesNotHaveDuplicates().allMatch(bit -> bit >= 0 && bit < 16);
+    }
+
+    @Test
+    void pack_writesMaskThenUnitsInBitOrder() {
+        SizeQuantities sizes = SizeQuantities.of(Map.of("S", 10, "2", 1));
+
+        byte[] packed = sizes.pack();
+
+        assertThat(packed).containsExactly(0x02, 0x01, 0, 0, 0, 1, 0, 0, 0, 10);
+        assertThat(SizeQuantities.presentMask(packed)).isEqualTo((1 << Size.T2.getBit()) | (1 << Size.S.getBit()));
+        assertThat(SizeQuantities.unpack(packed)).isEqualTo(sizes);
+    }
+
+    @Test
+    void unpack_rejectsUnknownBitsAndBadLengths() {
+        assertThat(SizeQuantities.unpack(null).isEmpty()).isTrue();
+        assertThatThrownBy(() -> SizeQuantities.unpack(new byte[]{(byte) 0x80, 0, 0, 0, 0, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SizeQuantities.unpack(Arrays.copyOf(SizeQuantities.of(Map.of("M", 3)).pack(), 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.carsil.userapi.model.enums;
+
+import com.carsil.userapi.config.EnumCodecModule;
+import com.carsil.userapi.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EnumCodecTest {
+
+    @Test
+    void find_matchesLabelOrName_ignoringCaseAccentsAndSurroundingSpaces() {
+        assertThat(Brand.CODEC.find(" linea directa ")).isEqualTo(Brand.ELEDE);
+        assertThat(Brand.CODEC.find("tennis")).isEqualTo(Brand.TENNIS);
+        assertThat(Brand.CODEC.find("")).isEqualTo(Brand.BLANK);
+        assertThat(ProductionStatus.CODEC.find("Confección")).isEqualTo(ProductionStatus.CONFECCION);
+        assertThat(ProductionStatus.CODEC.find("CONFECCION")).isEqualTo(ProductionStatus.CONFECCION);
+        assertThat(StoppageReason.CODEC.find("Composición")).isEqualTo(StoppageReason.COMPOSICION);
+        assertThat(StoppageReason.CODEC.find("falta_todo")).isEqualTo(StoppageReason.FALTA_TODO);
+        assertThat(Size.CODEC.find("xs")).isEqualTo(Size.XS);
+        assertThat(Size.CODEC.find("10")).isEqualTo(Size.T10);
+        assertThat(Size.CODEC.find("1")).isNull();
+
+        char[] buffer = "{\"brand\":\"TENNIS SAS\"}".toCharArray();
+        assertThat(Brand.CODEC.find(buffer, 10, 10)).isEqualTo(Brand.TENNIS);
+    }
+
+    @Test
+    void parse_rejectsUnknownValues_withTheEnumDescription() {
+        assertThat(Brand.CODEC.parse(null)).isNull();
+        assertThatThrownBy(() -> Brand.fromJson("ACME"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid Brand: ACME");
+        assertThatThrownBy(() -> StoppageReason.fromJson("LLUVIA"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Invalid Descripción Paro: LLUVIA");
+    }
+
+    @Test
+    void module_readsAnySpelling_andWritesTheUsualJson() throws Exception {
+        ObjectMapper mapper = JsonMapper.builder().findAndAddModules().addModule(new EnumCodecModule()).build();
+
+        Product p = mapper.readValue("""
+                {"brand":"linea directa","status":"Confección","stoppageReason":"faltante de pieza"}
+                """, Product.class);
+
+        assertThat(p.getBrand()).isEqualTo(Brand.ELEDE);
+        assertThat(p.getStatus()).isEqualTo(ProductionStatus.CONFECCION);
+        assertThat(p.getStoppageReason()).isEqualTo(StoppageReason.FALTANTE_DE_PIEZA);
+        String json = mapper.writeValueAsString(p);
+        assertThat(json).contains("\"brand\":\"LINEA DIRECTA\"", "\"status\":\"CONFECCION\"",
+                "\"stoppageReason\":\"FALTANTE DE PIEZA\"");
+        assertThat(mapper.writeValueAsString(Size.T2)).isEqualTo("\"2\"");
+        assertThatThrownBy(() -> mapper.readValue("{\"brand\":\"ACME\"}", Product.class))
+                .isInstanceOf(InvalidFormatException.class).hasMessageContaining("Invalid Brand");
+    }
+}
@@ -0,0 +1,164 @@
+package com.carsil.userapi.repository;
+
+import com.carsil.userapi.dto.ProductSummary;
+import com.carsil.userapi.dto.TeamSummary;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.Size;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductRepositoryTest {
+
+    private static final int PRODUCTS = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Team firstTeam;
+
+    @BeforeEach
+    void seed() {
+        List<Team> teams = List.of(team("Modulo 1"), team("Modulo 2"), team("Modulo 3"));
+        teams.forEach(entityManager::persist);
+        firstTeam = teams.get(0);
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            entityManager.persist(product(i, teams.get(i % teams.size())));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_loadsSizesAndTeam_inSingleStatement() {
+        List<Product> products = productRepository.findAll();
+
+        assertThat(products).hasSize(PRODUCTS);
+        touch(products);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void search_loadsSizesAndTeam_inSingleStatement() {
+        List<Product> products = productRepository.search("");
+
+        assertThat(products).hasSize(PRODUCTS);
+        touch(products);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByTeamId_loadsSizesAndTeam_inSingleStatement() {
+        List<Product> products = productRepository.findByTeamId(firstTeam.getId());
+
+        assertThat(products).hasSize(334);
+        touch(products);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysetPage_loadsSizesAndTeam_inSingleStatement() {
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(PRODUCTS));
+
+        assertThat(products).hasSize(PRODUCTS);
+        touch(products);
+        // Las tallas vienen en la misma fila del producto: ya no hay consultas por bloques
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sizes_changedInPlace_arePersisted() {
+        Product p = productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)).get(0);
+        p.getSizeQuantities().set(Size.XL, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(productRepository.findById(p.getId()).orElseThrow().getSizeQuantities().toMap())
+                .containsExactly(Map.entry("S", 5), Map.entry("M", 5), Map.entry("XL", 3));
+    }
+
+    @Test
+    void summaries_groupInDatabase() {
+        List<ProductSummary> byBrand = productRepository.summarizeByBrand(null, null);
+
+        assertThat(byBrand).hasSize(1);
+        ProductSummary tennis = byBrand.get(0);
+        assertThat(tennis.getKey()).isEqualTo(Brand.TENNIS);
+        assertThat(tennis.getProducts()).isEqualTo(PRODUCTS);
+        assertThat(tennis.getQuantity()).isEqualTo(10L * PRODUCTS);
+        assertThat(tennis.getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(10_000L * PRODUCTS));
+
+        List<TeamSummary> byTeam = productRepository.summarizeByTeam(null, null);
+        assertThat(byTeam).extracting(TeamSummary::getKey).containsExactly("Modulo 1", "Modulo 2", "Modulo 3");
+        assertThat(byTeam.get(0).getTeamId()).isEqualTo(firstTeam.getId());
+        assertThat(byTeam.get(0).getProducts()).isEqualTo(334);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void summaries_filterByPlantEntryDate() {
+        assertThat(productRepository.summarizeByStatus(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)))
+                .isEmpty();
+        assertThat(productRepository.summarizeByCampaign(null, null))
+                .singleElement()
+                .satisfies(s -> assertThat(s.getKey()).isEqualTo("2025"));
+    }
+
+    private void touch(List<Product> products) {
+        for (Product p : products) {
+            assertThat(p.getSizeQuantities().toMap()).hasSize(2);
+            assertThat(p.getTeam().getName()).startsWith("Modulo");
+        }
+    }
+
+    private Team team(String name) {
+        Team t = new Team();
+        t.setName(name);
+        t.setNumPersons(10);
+        return t;
+    }
+
+    private Product product(int i, Team team) {
+        SizeQuantities sizes = new SizeQuantities();
+        sizes.set(Size.S, 5);
+        sizes.set(Size.M, 5);
+
+        Product p = new Product();
+        p.setPrice(BigDecimal.valueOf(1000));
+        p.setQuantity(10);
+        p.setQuantityMade(0);
+        p.setAssignedDate(LocalDate.of(2025, 1, 1));
+        p.setReference("100" + i);
+        p.setBrand(Brand.TENNIS);
+        p.setOp(String.valueOf(50000 + i));
+        p.setCampaign("2025");
+        p.setType("TypeA");
+        p.setSizeQuantities(sizes);
+        p.setTeam(team);
+        return p;
+    }
+}
@@ -0,0 +1,97 @@
+package com.carsil.userapi.repository;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TeamRepositoryTest {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void applyLoad_incrementsAggregate_andComputesLoadDays() {
+        Team team = persistTeam(2, 0L);
+
+        teamRepository.applyLoad(team.getId(), 1080, new BigDecimal("1.35"));
+        teamRepository.applyLoad(team.getId(), 1080, null);
+        entityManager.clear();
+
+        Team reloaded = teamRepository.findById(team.getId()).orElseThrow();
+        assertThat(reloaded.getSamTotalSum()).isEqualTo(2160L);
+        assertThat(reloaded.getLoadDays()).isEqualByComparingTo("1.35");
+        // 2160 min / 60 / 9 / 2 personas * 1.35
+        assertThat(reloaded.getTotaLoadDays()).isEqualByComparingTo("2.70");
+    }
+
+    @Test
+    void loadColumns_areNotWrittenFromEntityState() {
+        Team team = persistTeam(2, 100L);
+
+        team.setSamTotalSum(999L);
+        team.setLoadDays(BigDecimal.TEN);
+        team.setName("Renamed");
+        entityManager.flush();
+        entityManager.clear();
+
+        Team reloaded = teamRepository.findById(team.getId()).orElseThrow();
+        assertThat(reloaded.getName()).isEqualTo("Renamed");
+        assertThat(reloaded.getSamTotalSum()).isEqualTo(100L);
+        assertThat(reloaded.getLoadDays()).isNull();
+    }
+
+    @Test
+    void backfillSamTotals_sumsProductsOfTeamsWithoutAggregate() {
+        Team team = persistTeam(3, null);
+        persistProduct("7001", team, 300);
+        persistProduct("7002", team, 200);
+        entityManager.flush();
+
+        int updated = teamRepository.backfillSamTotals();
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(teamRepository.findById(team.getId()).orElseThrow().getSamTotalSum()).isEqualTo(500L);
+    }
+
+    private Team persistTeam(int people, Long samTotalSum) {
+        Team t = new Team();
+        t.setName("Modulo");
+        t.setNumPersons(people);
+        t.setSamTotalSum(samTotalSum);
+        entityManager.persist(t);
+        entityManager.flush();
+        return t;
+    }
+
+    private void persistProduct(String op, Team team, int samTotal) {
+        Product p = new Product();
+        p.setPrice(BigDecimal.ONE);
+        p.setQuantity(10);
+        p.setAssignedDate(LocalDate.of(2025, 1, 1));
+        p.setReference("1");
+        p.setBrand(Brand.TENNIS);
+        p.setOp(op);
+        p.setCampaign("1");
+        p.setType("A");
+        p.setSizeQuantities(SizeQuantities.of(Map.of("S", 10)));
+        p.setSamTotal(samTotal);
+        p.setTeam(team);
+        entityManager.persist(p);
+    }
+}
@@ -0,0 +1,75 @@
+package com.carsil.userapi.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DigitTrieTest {
+
+    @Test
+    void complete_returnsShortestFirst_thenNumericOrder() {
+        DigitTrie trie = new DigitTrie();
+        trie.add("4521", 1L);
+        trie.add("452", 2L);
+        trie.add("45210", 3L);
+        trie.add("4529", 4L);
+        trie.add("9000", 5L);
+
+        List<DigitTrie.Term> terms = trie.complete("452", 10);
+
+        assertThat(terms).extracting(DigitTrie.Term::value).containsExactly("452", "4521", "4529", "45210");
+    }
+
+    @Test
+    void complete_honoursLimit_andGroupsIdsOfSameValue() {
+        DigitTrie trie = new DigitTrie();
+        trie.add("1200", 1L);
+        trie.add("1200", 2L);
+        trie.add("1201", 3L);
+
+        List<DigitTrie.Term> terms = trie.complete("12", 1);
+
+        assertThat(terms).hasSize(1);
+        assertThat(terms.get(0).productIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void remove_prunesEmptyBranches() {
+        DigitTrie trie = new DigitTrie();
+        trie.add("777", 1L);
+        trie.add("778", 2L);
+
+        trie.remove("777", 1L);
+
+        assertThat(trie.complete("77", 10)).extracting(DigitTrie.Term::value).containsExactly("778");
+        assertThat(trie.complete("777", 10)).isEmpty();
+    }
+
+    @Test
+    void remove_ofShortestTerm_letsCompleteReachLongerOnes() {
+        DigitTrie trie = new DigitTrie();
+        trie.add("9", 1L);
+        trie.add("93", 2L);
+        trie.add("9100", 3L);
+        trie.add("95", 4L);
+
+        trie.remove("9", 1L);
+        trie.remove("93", 2L);
+
+        assertThat(trie.complete("", 10)).extracting(DigitTrie.Term::value).containsExactly("95", "9100");
+        trie.remove("95", 4L);
+        assertThat(trie.complete("9", 1)).extracting(DigitTrie.Term::value).containsExactly("9100");
+    }
+
+    @Test
+    void ignoresNonDigitValuesAndPrefixes() {
+        DigitTrie trie = new DigitTrie();
+        trie.add("OP-1", 1L);
+        trie.add("", 2L);
+
+        assertThat(trie.complete("", 10)).isEmpty();
+        assertThat(trie.complete("O", 10)).isEmpty();
+    }
+}
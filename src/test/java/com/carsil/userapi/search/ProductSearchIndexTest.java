@@ -0,0 +1,73 @@
+package com.carsil.userapi.search;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.enums.Brand;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new ProductSearchIndex();
+        index.index(product(1L, "4521", "9900", "2025", Brand.TENNIS, "Camiseta básica"));
+        index.index(product(2L, "9452", "4521", "2025", Brand.ELEDE, "Pantalón"));
+        index.index(product(3L, "4521001", "1200", "2024", Brand.BLANK, null));
+        index.index(product(4L, "7777", "1200", "2024", Brand.BLANK, "Camisa manga larga"));
+    }
+
+    @Test
+    void search_findsSubstring_inAnyField_rankedByFieldAndMatchKind() {
+        SearchHits hits = index.search("4521", 0, 10);
+
+        // op exacta > op prefijo > referencia exacta > op contenida
+        assertThat(hits.getTotal()).isEqualTo(3);
+        assertThat(hits.getProductIds()).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void search_isCaseAndAccentInsensitive_onDescriptionAndBrand() {
+        assertThat(index.search("BASICA", 0, 10).getProductIds()).containsExactly(1L);
+        assertThat(index.search("pantalon", 0, 10).getProductIds()).containsExactly(2L);
+        assertThat(index.search("linea", 0, 10).getProductIds()).containsExactly(2L);
+        assertThat(index.search("elede", 0, 10).getProductIds()).containsExactly(2L);
+    }
+
+    @Test
+    void search_handlesShortQueries_byScanningLiveDocuments() {
+        assertThat(index.search("77", 0, 10).getProductIds()).containsExactly(4L);
+    }
+
+    @Test
+    void search_pagesResults() {
+        SearchHits page = index.search("camis", 1, 1);
+
+        assertThat(page.getTotal()).isEqualTo(2);
+        assertThat(page.getProductIds()).containsExactly(4L);
+    }
+
+    @Test
+    void index_replacesPreviousVersion_andRemoveDropsProduct() {
+        index.index(product(4L, "8888", "1200", "2024", Brand.BLANK, "Camisa manga larga"));
+        index.remove(1L);
+
+        assertThat(index.search("7777", 0, 10).getTotal()).isZero();
+        assertThat(index.search("8888", 0, 10).getProductIds()).containsExactly(4L);
+        assertThat(index.search("4521", 0, 10).getProductIds()).containsExactly(3L, 2L);
+    }
+
+    private Product product(Long id, String op, String reference, String campaign, Brand brand, String description) {
+        Product p = new Product();
+        p.setId(id);
+        p.setOp(op);
+        p.setReference(reference);
+        p.setCampaign(campaign);
+        p.setBrand(brand);
+        p.setDescription(description);
+        return p;
+    }
+}
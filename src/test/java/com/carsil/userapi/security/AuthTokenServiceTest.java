@@ -0,0 +1,93 @@
+package com.carsil.userapi.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private Instant now = Instant.parse("2026-01-15T12:00:00Z");
+    private AuthTokenService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        service = newService(SECRET);
+    }
+
+    @Test
+    void issuedToken_resolvesToUser() {
+        String token = service.issue("luis");
+
+        assertThat(token.split("\\.")).hasSize(3);
+        assertThat(service.resolve(token)).contains("luis");
+    }
+
+    @Test
+    void tamperedOrForeignTokens_areRejected() throws Exception {
+        String token = service.issue("luis");
+        String[] parts = token.split("\\.");
+        String otherPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin\",\"exp\":9999999999,\"jti\":\"x\"}".getBytes());
+
+        assertThat(service.resolve(parts[0] + "." + otherPayload + "." + parts[2])).isEmpty();
+        int at = token.length() - 10;
+        char flipped = token.charAt(at) == 'A' ? 'B' : 'A';
+        assertThat(service.resolve(token.substring(0, at) + flipped + token.substring(at + 1))).isEmpty();
+        assertThat(service.resolve("not-a-token")).isEmpty();
+
+        AuthTokenService other = newService(Base64.getEncoder().encodeToString(new byte[]{
+                1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}));
+        assertThat(other.resolve(token)).isEmpty();
+    }
+
+    @Test
+    void expiredToken_isRejected() throws Exception {
+        String token = service.issue("luis");
+
+        setClock(service, now.plus(Duration.ofMinutes(31)));
+
+        assertThat(service.resolve(token)).isEmpty();
+    }
+
+    @Test
+    void revokedToken_isRejected_othersStillValid() {
+        String revoked = service.issue("luis");
+        String kept = service.issue("luis");
+
+        service.revoke(revoked);
+
+        assertThat(service.resolve(revoked)).isEmpty();
+        assertThat(service.resolve(kept)).contains("luis");
+    }
+
+    private AuthTokenService newService(String secret) throws Exception {
+        AuthTokenService s = new AuthTokenService();
+        set(s, "ttlMinutes", 30L);
+        set(s, "secret", secret);
+        set(s, "objectMapper", new ObjectMapper());
+        setClock(s, now);
+        s.init();
+        return s;
+    }
+
+    private static void setClock(AuthTokenService s, Instant instant) throws Exception {
+        set(s, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private static void set(AuthTokenService s, String name, Object value) throws Exception {
+        var field = AuthTokenService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(s, value);
+    }
+}
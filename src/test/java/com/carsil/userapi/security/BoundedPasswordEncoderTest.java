@@ -0,0 +1,72 @@
+package com.carsil.userapi.security;
+
+import com.carsil.userapi.exception.LoginThrottledException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (encoder != null) encoder.shutdown();
+    }
+
+    @Test
+    void matches_delegatesToWrappedEncoder() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000);
+        when(delegate.matches("secret", "HASH")).thenReturn(true);
+
+        assertThat(encoder.matches("secret", "HASH")).isTrue();
+        assertThat(encoder.matches("bad", "HASH")).isFalse();
+    }
+
+    @Test
+    void matches_rejectsWhenPoolAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        when(delegate.matches(any(), anyString())).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "HASH"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "HASH"));
+        while (encoder.queuedVerifications() == 0) Thread.onSpinWait();
+
+        assertThatThrownBy(() -> encoder.matches("c", "HASH")).isInstanceOf(LoginThrottledException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void matches_givesUpAfterTimeout() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 50);
+        when(delegate.matches(any(), anyString())).thenAnswer(inv -> {
+            release.await();
+            return true;
+        });
+
+        assertThatThrownBy(() -> encoder.matches("a", "HASH")).isInstanceOf(LoginThrottledException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.metrics.ProductMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OptimisticRetryTest {
+
+    private PlatformTransactionManager transactionManager;
+    private ProductMetrics productMetrics;
+    private OptimisticRetry retry;
+
+    @BeforeEach
+    void setup() throws Exception {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        productMetrics = mock(ProductMetrics.class);
+        retry = new OptimisticRetry();
+        set("transactionManager", transactionManager);
+        set("productMetrics", productMetrics);
+        set("maxAttempts", 3);
+        set("backoffMs", 1L);
+    }
+
+    @Test
+    void conflict_isRetriedInANewTransaction_untilItCommits() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.inTransaction("ProductService.incrementMade", status -> {
+            if (attempts.incrementAndGet() < 3) throw new ObjectOptimisticLockingFailureException("Product", 1L);
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(productMetrics, times(2)).optimisticConflict("ProductService.incrementMade", "retried");
+    }
+
+    @Test
+    void conflictsBeyondMaxAttempts_arePropagated() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.inTransaction("op", status -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Product", 1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(3);
+        verify(productMetrics).optimisticConflict("op", "exhausted");
+    }
+
+    @Test
+    void otherFailures_areNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.inTransaction("op", status -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("quantityMade cannot exceed total quantity");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+        verifyNoInteractions(productMetrics);
+    }
+
+    private void set(String field, Object value) throws Exception {
+        var f = OptimisticRetry.class.getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(retry, value);
+    }
+}
@@ -0,0 +1,112 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.exporter.ExportFormat;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(ProductExportService.class)
+class ProductExportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 3, 31);
+
+    @Autowired
+    private ProductExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void seed() {
+        Team team = new Team();
+        team.setName("Modulo 1");
+        entityManager.persist(team);
+
+        entityManager.persist(product("300", LocalDate.of(2025, 3, 20), team, "Jean, \"azul\"", Map.of("M", 5, "S", 5)));
+        entityManager.persist(product("100", LocalDate.of(2025, 3, 2), null, null, Map.of("XL", 3, "2", 1)));
+        entityManager.persist(product("200", LocalDate.of(2025, 4, 1), team, null, Map.of("S", 7)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void csv_flattensSizes_ordersByDate_andQuotesWhereNeeded() throws Exception {
+        String[] lines = export(ExportFormat.CSV).split("\r\n");
+
+        assertThat(lines).hasSize(3);
+        // Las 14 columnas de talla, siempre, en el orden del enum (numéricas primero)
+        assertThat(lines[0]).isEqualTo(String.join(",", ProductExportService.FIELDS) + ",2,4,6,8,10,12,14,16,XS,S,M,L,XL,XXL");
+        // Sin team, sin descripción: celdas vacías; tallas que no tiene, también
+        assertThat(lines[1].substring(lines[1].indexOf(','))).isEqualTo(
+                ",100,1,2025,T1,,BLANK,PROCESO,15000.5,4,0,4,2.5,10,2025-03-01,2025-03-02,,,,,1,,,,,,,,,,,,3,");
+        assertThat(lines[2]).contains(",300,1,2025,T1,\"Jean, \"\"azul\"\"\",BLANK,").endsWith(",Modulo 1,,,,,,,,,,5,5,,,");
+    }
+
+    @Test
+    void ndjson_writesOneObjectPerProduct_withoutNulls() throws Exception {
+        String[] lines = export(ExportFormat.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"price\":15000.5,");
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertThat(first.get("op").asText()).isEqualTo("100");
+        assertThat(first.get("price").decimalValue()).isEqualByComparingTo("15000.5");
+        assertThat(first.get("XL").asInt()).isEqualTo(3);
+        assertThat(first.get("2").asInt()).isEqualTo(1);
+        assertThat(first.has("S")).isFalse();
+        assertThat(first.has("teamId")).isFalse();
+        assertThat(new ObjectMapper().readTree(lines[1]).get("teamName").asText()).isEqualTo("Modulo 1");
+    }
+
+    @Test
+    void emptyRange_writesOnlyTheHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31), ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(String.join(",", ProductExportService.COLUMNS) + "\r\n");
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(FROM, TO, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Product product(String op, LocalDate plantEntryDate, Team team, String description, Map<String, Integer> sizes) {
+        Product p = new Product();
+        p.setOp(op);
+        p.setReference("1");
+        p.setCampaign("2025");
+        p.setType("T1");
+        p.setDescription(description);
+        p.setPrice(new BigDecimal("15000.50"));
+        p.setBrand(Brand.BLANK);
+        p.setAssignedDate(LocalDate.of(2025, 3, 1));
+        p.setPlantEntryDate(plantEntryDate);
+        p.setSam(2.5);
+        p.setSamTotal(10);
+        p.setMissing(sizes.values().stream().mapToInt(Integer::intValue).sum());
+        p.setTeam(team);
+        p.setSizeQuantities(SizeQuantities.of(sizes));
+        return p;
+    }
+}
@@ -0,0 +1,117 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.cache.ProductCache;
+import com.carsil.userapi.dto.ImportReport;
+import com.carsil.userapi.importer.CsvRowReader;
+import com.carsil.userapi.metrics.ProductMetrics;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin la transacción del test: cada lote hace commit de verdad y la carga del módulo se escribe
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({ProductImportService.class, TeamLoadTracker.class, ProductCache.class})
+class ProductImportServiceTest {
+
+    private static final String HEADER = "op,reference,campaign,type,price,assignedDate,sam,teamId,S,M\n";
+
+    @Autowired
+    private ProductImportService importService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductMetrics productMetrics;
+
+    private Team team;
+
+    @BeforeEach
+    void setup() {
+        Team t = new Team();
+        t.setName("Modulo 1");
+        t.setNumPersons(10);
+        team = teamRepository.save(t);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM carsil_product");
+        jdbcTemplate.update("DELETE FROM carsil_team");
+    }
+
+    @Test
+    void insertsValidRows_withSizesAndTeamLoad_inBatches() throws Exception {
+        int rows = ProductImportService.CHUNK + 5;
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < rows; i++) {
+            csv.append(100_000 + i).append(",45210,2025,T1,15000,2025-01-0").append(1 + i % 9)
+                    .append(",2,").append(team.getId()).append(",10,20\n");
+        }
+
+        ImportReport report = importService.importRows(new CsvRowReader(new StringReader(csv.toString())));
+
+        assertThat(report.getInserted()).isEqualTo(rows);
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carsil_product", Long.class)).isEqualTo(rows);
+        byte[] packed = jdbcTemplate.queryForObject("SELECT size_units FROM carsil_product WHERE op = '100000'", byte[].class);
+        assertThat(SizeQuantities.unpack(packed).toMap()).containsExactly(Map.entry("S", 10), Map.entry("M", 20));
+        Map<String, Object> first = jdbcTemplate.queryForMap(
+                "SELECT quantity, missing, sam_total, status, brand FROM carsil_product WHERE op = '100000'");
+        assertThat(first).containsEntry("QUANTITY", 30).containsEntry("MISSING", 30).containsEntry("SAM_TOTAL", 60)
+                .containsEntry("STATUS", "PROCESO").containsEntry("BRAND", "BLANK");
+        // samTotal = 30 unidades * 2 min por producto
+        assertThat(teamRepository.findById(team.getId()).orElseThrow().getSamTotalSum()).isEqualTo(60L * rows);
+    }
+
+    @Test
+    void skipsDuplicateOps_andReportsInvalidRowsWithTheirLine() throws Exception {
+        importService.importRows(new CsvRowReader(new StringReader(HEADER + "500,1,2025,T1,100,2025-01-01,,,1,1\n")));
+
+        ImportReport report = importService.importRows(new CsvRowReader(new StringReader(HEADER
+                + "500,1,2025,T1,100,2025-01-01,,,1,1\n"
+                + "501,1,2025,T1,100,2025-01-01,,,1,1\n"
+                + "501,1,2025,T1,100,2025-01-01,,,1,1\n"
+                + "502,ABC,2025,T1,100,2025-01-01,,,1,1\n"
+                + "503,1,2025,T1,100,2025-01-01,,999,1,1\n")));
+
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(report.getDuplicates()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ImportReport.RowError::getLine).containsExactlyInAnyOrder(2L, 4L, 5L, 6L);
+        assertThat(report.getErrors()).anyMatch(e -> e.getLine() == 5 && e.getMessage().startsWith("reference:"));
+        assertThat(report.getErrors()).anyMatch(e -> e.getLine() == 6 && e.getMessage().equals("Team not found: 999"));
+    }
+
+    @Test
+    void sizeSumMismatch_isRejectedByProductRules() throws Exception {
+        ImportReport report = importService.importRows(new CsvRowReader(new StringReader(
+                "op,reference,campaign,type,price,assignedDate,quantity,S,M\n600,1,2025,T1,100,2025-01-01,50,10,20\n")));
+
+        assertThat(report.getInserted()).isZero();
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("The sum of sizes (30) does not match the total (quantity=50)");
+    }
+}
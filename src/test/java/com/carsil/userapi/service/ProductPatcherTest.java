@@ -0,0 +1,77 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.ProductionStatus;
+import com.carsil.userapi.model.enums.StoppageReason;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductPatcherTest {
+
+    @Test
+    void apply_setsEachKeyWithItsType() {
+        Product p = new Product();
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("price", 15000.5);
+        updates.put("quantity", 10);
+        updates.put("sam", 2);
+        updates.put("plantEntryDate", "2025-03-04");
+        updates.put("campaign", 2025);
+        updates.put("brand", " linea directa ");
+        updates.put("status", "CONFECCION");
+        updates.put("stoppageReason", "faltante de pieza");
+        updates.put("description", null);
+        updates.put("sizeQuantities", Map.of("S", 4, "M", 6));
+        updates.put("version", 3);
+        updates.put("TeamId", 9);
+
+        ProductPatcher.apply(p, updates);
+
+        assertThat(p.getPrice()).isEqualByComparingTo(new BigDecimal("15000.5"));
+        assertThat(p.getQuantity()).isEqualTo(10);
+        assertThat(p.getSam()).isEqualTo(2.0);
+        assertThat(p.getPlantEntryDate()).isEqualTo(LocalDate.of(2025, 3, 4));
+        assertThat(p.getCampaign()).isEqualTo("2025");
+        assertThat(p.getBrand()).isEqualTo(Brand.ELEDE);
+        assertThat(p.getStatus()).isEqualTo(ProductionStatus.CONFECCION);
+        assertThat(p.getStoppageReason()).isEqualTo(StoppageReason.FALTANTE_DE_PIEZA);
+        assertThat(p.getSizeQuantities().toMap()).containsEntry("S", 4).containsEntry("M", 6);
+        // La versión y el módulo los atiende el servicio
+        assertThat(p.getVersion()).isNull();
+        assertThat(p.getTeam()).isNull();
+    }
+
+    @Test
+    void apply_rejectsUnknownOrReadOnlyKeys_beforeTouchingTheProduct() {
+        Product p = new Product();
+        p.setSam(1.0);
+
+        assertThatThrownBy(() -> ProductPatcher.apply(p, Map.of("sam", 3.0, "colour", "red")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("colour");
+        assertThatThrownBy(() -> ProductPatcher.apply(p, Map.of("sam", 3.0, "samTotal", 99)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("read-only");
+        assertThatThrownBy(() -> ProductPatcher.apply(p, Map.of("team", Map.of("id", 2))))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("TeamId");
+        assertThat(p.getSam()).isEqualTo(1.0);
+    }
+
+    @Test
+    void apply_rejectsValuesOfTheWrongType() {
+        Product p = new Product();
+
+        assertThatThrownBy(() -> ProductPatcher.apply(p, Map.of("quantity", 2.5)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("quantity");
+        assertThatThrownBy(() -> ProductPatcher.apply(p, Map.of("assignedDate", "04/03/2025")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("assignedDate");
+        assertThatThrownBy(() -> ProductPatcher.apply(p, Map.of("brand", "ACME")))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Brand");
+    }
+}
@@ -0,0 +1,236 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.cache.ProductCache;
+import com.carsil.userapi.dto.ProgressResult;
+import com.carsil.userapi.dto.ProgressUpdate;
+import com.carsil.userapi.dto.SizeProgressUpdate;
+import com.carsil.userapi.metrics.ProductMetrics;
+import com.carsil.userapi.model.Product;
+import com.carsil.userapi.model.SizeQuantities;
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.model.enums.Brand;
+import com.carsil.userapi.model.enums.Size;
+import com.carsil.userapi.repository.ProductRepository;
+import com.carsil.userapi.repository.TeamRepository;
+import com.carsil.userapi.search.ProductSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+// Sin la transacción del test: cada incremento hace commit de verdad y compite con los demás
+@DataJpaTest(properties = "carsil.concurrency.max-attempts=50")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProductService.class, OptimisticRetry.class, TeamLoadTracker.class, ProductCache.class})
+class ProductServiceConcurrencyTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ProductSearchIndex searchIndex;
+
+    @MockBean
+    private ProductMetrics productMetrics;
+
+    private Product product;
+
+    @BeforeEach
+    void setup() {
+        Team team = new Team();
+        team.setName("Modulo 1");
+        team.setNumPersons(10);
+        team.setSamTotalSum(0L);
+        team = teamRepository.save(team);
+
+        Product p = new Product();
+        p.setOp("100");
+        p.setReference("1");
+        p.setCampaign("2025");
+        p.setType("T1");
+        p.setPrice(BigDecimal.TEN);
+        p.setBrand(Brand.BLANK);
+        p.setAssignedDate(LocalDate.of(2025, 1, 1));
+        p.setSam(1.0);
+        p.setTeam(team);
+        p.setSizeQuantities(SizeQuantities.of(Map.of("S", 500, "M", 500)));
+        product = productService.create(p);
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM carsil_product");
+        jdbcTemplate.update("DELETE FROM carsil_team");
+    }
+
+    @Test
+    void concurrentIncrements_areAllApplied_withoutLostUpdates() throws Exception {
+        int threads = 8, perThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) productService.incrementMade(product.getId(), 1);
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getQuantityMade()).isEqualTo(threads * perThread);
+        assertThat(after.getVersion()).isEqualTo(product.getVersion() + threads * perThread);
+        // La carga del módulo sigue a samTotal: (1000 - 200) * 1.0
+        assertThat(teamRepository.findById(after.getTeam().getId()).orElseThrow().getSamTotalSum()).isEqualTo(800L);
+    }
+
+    @Test
+    void progressBatch_returnsOneResultPerItem_andReportsOverflow() {
+        List<ProgressResult> results = productService.applyProgressBatch(List.of(
+                new ProgressUpdate(product.getId(), 5), new ProgressUpdate(999_999L, 1), new ProgressUpdate(product.getId(), 2)));
+
+        assertThat(results).extracting(ProgressResult::getDelta).containsExactly(5, 1, 2);
+        assertThat(results).extracting(ProgressResult::isSuccess).containsExactly(true, false, true);
+        assertThat(results.get(2).getQuantityMade()).isEqualTo(7);
+        assertThat(results.get(1).getError()).contains("999999");
+
+        // La suma no cabe en un int: falla ese producto (sus dos items), no el lote
+        results = productService.applyProgressBatch(List.of(
+                new ProgressUpdate(product.getId(), Integer.MAX_VALUE), new ProgressUpdate(product.getId(), 1)));
+        assertThat(results).hasSize(2).allSatisfy(r -> assertThat(r.getError()).contains("overflow"));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantityMade()).isEqualTo(7);
+    }
+
+    @Test
+    void coalescedTicks_applyThoseThatFit_andCountTheRest() {
+        productService.incrementMade(product.getId(), 995);
+
+        List<ProgressResult> results = productService.applyCoalescedProgress(
+                Map.of(product.getId(), new int[]{1, 1, 1, 1, 1, 1}));
+
+        // Como seis llamadas sueltas: entran 5 y se rechaza la sexta
+        assertThat(results).singleElement().satisfies(r -> {
+            assertThat(r.getDelta()).isEqualTo(5);
+            assertThat(r.isSuccess()).isFalse();
+            assertThat(r.getError()).isEqualTo("1 of 6 ticks rejected");
+        });
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantityMade()).isEqualTo(1000);
+        verify(productMetrics).progressRejected(any(Product.class), eq(1));
+
+        // Signos mezclados: cada tick se evalúa sobre lo aplicado antes que él
+        results = productService.applyCoalescedProgress(Map.of(product.getId(), new int[]{1, -3, 2}));
+        assertThat(results.get(0).getDelta()).isEqualTo(-1);
+        assertThat(results.get(0).getQuantityMade()).isEqualTo(999);
+    }
+
+    @Test
+    void concurrentSizeProgress_isAllApplied_andDerivesTotals() throws Exception {
+        int threads = 8, perThread = 25;
+        List<SizeProgressUpdate> tick = List.of(
+                new SizeProgressUpdate(product.getId(), Size.S, 1), new SizeProgressUpdate(product.getId(), Size.M, 1));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) productService.applySizeProgressBatch(tick);
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        Product after = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(after.getSizeMade().toMap()).containsExactly(Map.entry("S", 200), Map.entry("M", 200));
+        assertThat(after.getQuantityMade()).isEqualTo(400);
+        assertThat(after.getMissing()).isEqualTo(600);
+        assertThat(after.getSamTotal()).isEqualTo(600);
+        assertThat(teamRepository.findById(after.getTeam().getId()).orElseThrow().getSamTotalSum()).isEqualTo(600L);
+    }
+
+    @Test
+    void sizeProgress_isAllOrNothing() {
+        List<SizeProgressUpdate> batch = List.of(
+                new SizeProgressUpdate(product.getId(), Size.S, 10),
+                new SizeProgressUpdate(product.getId(), Size.M, 501));
+
+        assertThatThrownBy(() -> productService.applySizeProgressBatch(batch))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Product " + product.getId() + ":")
+                .hasMessageContaining("size M");
+        assertThatThrownBy(() -> productService.applySizeProgressBatch(List.of(new SizeProgressUpdate(product.getId(), Size.XL, 1))))
+                .hasMessageContaining("no units of size XL");
+        assertThatThrownBy(() -> productService.applySizeProgressBatch(List.of(
+                new SizeProgressUpdate(product.getId(), Size.S, Integer.MAX_VALUE), new SizeProgressUpdate(product.getId(), Size.S, 1))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("overflow");
+
+        Product unchanged = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(unchanged.getSizeMade().isEmpty()).isTrue();
+        assertThat(unchanged.getQuantityMade()).isZero();
+        assertThat(unchanged.getVersion()).isEqualTo(product.getVersion());
+
+        // Lo hecho por talla acota al total: no se puede bajar quantityMade por debajo
+        List<ProgressResult> results = productService.applySizeProgressBatch(List.of(
+                new SizeProgressUpdate(product.getId(), Size.S, 7), new SizeProgressUpdate(product.getId(), Size.S, 3)));
+        assertThat(results).singleElement().satisfies(r -> {
+            assertThat(r.getDelta()).isEqualTo(10);
+            assertThat(r.getSizeMade().get(Size.S)).isEqualTo(10);
+        });
+        productService.incrementMade(product.getId(), 5);
+        assertThatThrownBy(() -> productService.incrementMade(product.getId(), -6))
+                .hasMessageContaining("below the units made by size");
+    }
+
+    @Test
+    void update_withStaleVersion_isRejected() {
+        productService.incrementMade(product.getId(), 1);
+
+        Product patch = new Product();
+        patch.setVersion(product.getVersion());
+        patch.setDescription("Leída antes del avance");
+
+        assertThatThrownBy(() -> productService.update(patch, product.getId()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThatThrownBy(() -> productService.partialUpdate(product.getId(), Map.of("version", product.getVersion(), "sam", 2.0)))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        Product current = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(productService.partialUpdate(product.getId(), Map.of("version", current.getVersion(), "sam", 2.0)).getSam())
+                .isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,106 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.metrics.ProductMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProgressCoalescerTest {
+
+    private ProductService productService;
+    private TaskExecutor taskExecutor;
+    private ProgressCoalescer coalescer;
+
+    @BeforeEach
+    void setup() throws Exception {
+        productService = mock(ProductService.class);
+        taskExecutor = mock(TaskExecutor.class);
+        coalescer = new ProgressCoalescer();
+        set("productService", productService);
+        set("taskExecutor", taskExecutor);
+        set("productMetrics", mock(ProductMetrics.class));
+        set("maxPending", 3);
+    }
+
+    @Test
+    void flush_writesTicksPerProductInOrder_inOneBatch() {
+        coalescer.submit(1L, 5);
+        coalescer.submit(1L, -2);
+        coalescer.submit(2L, 1);
+
+        coalescer.flush();
+
+        Map<Long, int[]> batch = captureBatch();
+        assertThat(batch).containsOnlyKeys(1L, 2L);
+        assertThat(batch.get(1L)).containsExactly(5, -2);
+        assertThat(batch.get(2L)).containsExactly(1);
+        assertThat(coalescer.pendingProducts()).isZero();
+    }
+
+    @Test
+    void submit_neverOverflows_whileTicksPile() {
+        coalescer.submit(1L, Integer.MAX_VALUE);
+        coalescer.submit(1L, 1);
+
+        coalescer.flush();
+
+        assertThat(captureBatch().get(1L)).containsExactly(Integer.MAX_VALUE, 1);
+    }
+
+    @Test
+    void submit_triggersAsyncFlush_whenThresholdReached() {
+        coalescer.submit(1L, 1);
+        coalescer.submit(2L, 1);
+        verifyNoInteractions(taskExecutor);
+
+        coalescer.submit(3L, 1);
+
+        verify(taskExecutor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void flush_requeuesDeltas_whenBatchTransactionFails() {
+        when(productService.applyCoalescedProgress(any())).thenThrow(new IllegalStateException("db down"));
+        coalescer.submit(1L, 2);
+
+        coalescer.flush();
+        coalescer.submit(1L, -1);
+
+        assertThat(coalescer.pendingProducts()).isEqualTo(1);
+        reset(productService);
+        coalescer.flush();
+        // Los ticks devueltos van antes de los que llegaron después
+        assertThat(captureBatch().get(1L)).containsExactly(2, -1);
+    }
+
+    @Test
+    void flushOnShutdown_drainsEverything() {
+        coalescer.submit(1L, 2);
+        coalescer.submit(2L, 2);
+
+        coalescer.flushOnShutdown();
+
+        verify(productService).applyCoalescedProgress(any());
+        assertThat(coalescer.pendingProducts()).isZero();
+    }
+
+    private Map<Long, int[]> captureBatch() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, int[]>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(productService).applyCoalescedProgress(captor.capture());
+        return captor.getValue();
+    }
+
+    private void set(String name, Object value) throws Exception {
+        var field = ProgressCoalescer.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(coalescer, value);
+    }
+}
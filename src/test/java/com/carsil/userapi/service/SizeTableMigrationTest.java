@@ -0,0 +1,93 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.model.SizeQuantities;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El CREATE TABLE de la tabla vieja hace commit en H2: se trabaja sin la transacción del test
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(SizeTableMigration.class)
+class SizeTableMigrationTest {
+
+    @Autowired
+    private SizeTableMigration migration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS product_size_quantities");
+        jdbcTemplate.update("DELETE FROM carsil_product");
+    }
+
+    @Test
+    void withoutLegacyTable_doesNothing() {
+        assertThat(migration.migrate()).isZero();
+    }
+
+    @Test
+    void movesLegacyRowsToPackedColumn_onlyOnce() {
+        jdbcTemplate.execute("CREATE TABLE product_size_quantities (product_id BIGINT NOT NULL, size VARCHAR(255), units INT)");
+        long legacy = product("1", null);
+        long migrated = product("2", SizeQuantities.of(Map.of("XS", 7)).pack());
+        jdbcTemplate.update("INSERT INTO product_size_quantities VALUES (?, 'S', 10), (?, 'm', 20), (?, 'L', 99)",
+                legacy, legacy, migrated);
+
+        assertThat(migration.migrate()).isEqualTo(1);
+        assertThat(sizes(legacy)).containsExactly(Map.entry("S", 10), Map.entry("M", 20));
+        // Ya tenía la columna: no se pisa con lo de la tabla vieja
+        assertThat(sizes(migrated)).containsExactly(Map.entry("XS", 7));
+        assertThat(migration.migrate()).isZero();
+    }
+
+    @Test
+    void productWithUnknownSize_staysNull_untilTheDataIsFixed() {
+        jdbcTemplate.execute("CREATE TABLE product_size_quantities (product_id BIGINT NOT NULL, size VARCHAR(255), units INT)");
+        long ok = product("1", null);
+        long unknown = product("2", null);
+        long other = product("3", null);
+        jdbcTemplate.update("INSERT INTO product_size_quantities VALUES (?, 'S', 10), (?, 'M', 4), (?, 'XXXL', 5), (?, 'L', 3), (?, '3XL', 1)",
+                ok, unknown, unknown, other, other);
+
+        assertThat(migration.migrate()).isEqualTo(1);
+        assertThat(sizes(ok)).containsExactly(Map.entry("S", 10));
+        // Ni siquiera la talla conocida: no se escribe un producto a medias
+        assertThat(packed(unknown)).isNull();
+        assertThat(packed(other)).isNull();
+
+        // Corregido el dato, la siguiente corrida lo toma
+        jdbcTemplate.update("UPDATE product_size_quantities SET size = 'XXL' WHERE product_id = ? AND size = 'XXXL'", unknown);
+        assertThat(migration.migrate()).isEqualTo(1);
+        assertThat(sizes(unknown)).containsExactly(Map.entry("M", 4), Map.entry("XXL", 5));
+        assertThat(packed(other)).isNull();
+    }
+
+    private long product(String op, byte[] sizeUnits) {
+        jdbcTemplate.update("""
+                INSERT INTO carsil_product (op, reference, campaign, type, price, quantity, assigned_date, brand, status,
+                    quantity_made, missing, sam_total, version, size_units)
+                VALUES (?, 'R', '2025', 'T', 1000, 30, DATE '2025-01-01', 'BLANK', 'PROCESO', 0, 30, 0, 0, ?)
+                """, op, sizeUnits);
+        return jdbcTemplate.queryForObject("SELECT id FROM carsil_product WHERE op = ?", Long.class, op);
+    }
+
+    private Map<String, Integer> sizes(long id) {
+        return SizeQuantities.unpack(packed(id)).toMap();
+    }
+
+    private byte[] packed(long id) {
+        return jdbcTemplate.queryForObject("SELECT size_units FROM carsil_product WHERE id = ?", byte[].class, id);
+    }
+}
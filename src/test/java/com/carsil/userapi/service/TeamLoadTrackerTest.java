@@ -0,0 +1,97 @@
+package com.carsil.userapi.service;
+
+import com.carsil.userapi.model.Team;
+import com.carsil.userapi.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TeamLoadTrackerTest {
+
+    private TeamRepository teamRepository;
+    private TeamLoadTracker tracker;
+
+    @BeforeEach
+    void setup() throws Exception {
+        teamRepository = mock(TeamRepository.class);
+        tracker = new TeamLoadTracker();
+        var field = TeamLoadTracker.class.getDeclaredField("teamRepository");
+        field.setAccessible(true);
+        field.set(tracker, teamRepository);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(tracker);
+    }
+
+    @Test
+    void record_withoutTransaction_appliesImmediately() {
+        Team team = team(1L, 100L, null);
+
+        tracker.record(team, 50, new BigDecimal("0.50"));
+
+        verify(teamRepository).applyLoad(1L, 50, new BigDecimal("0.50"));
+        assertThat(team.getSamTotalSum()).isEqualTo(150L);
+    }
+
+    @Test
+    void record_inTransaction_writesOncePerTeamBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Team a = team(1L, 0L, null);
+        Team b = team(2L, 0L, null);
+
+        tracker.record(a, 10, new BigDecimal("1.00"));
+        tracker.record(a, 5, new BigDecimal("1.50"));
+        tracker.record(b, -3, null);
+        verifyNoInteractions(teamRepository);
+
+        commit();
+
+        verify(teamRepository).applyLoad(1L, 15, new BigDecimal("1.50"));
+        verify(teamRepository).applyLoad(2L, -3, null);
+        verifyNoMoreInteractions(teamRepository);
+    }
+
+    @Test
+    void record_inTransaction_skipsTeamsWhoseValuesDidNotChange() {
+        TransactionSynchronizationManager.initSynchronization();
+        Team team = team(1L, 100L, new BigDecimal("0.68"));
+
+        tracker.record(team, 20, new BigDecimal("0.68"));
+        tracker.record(team, -20, new BigDecimal("0.680"));
+
+        commit();
+
+        verify(teamRepository, never()).applyLoad(anyLong(), anyLong(), any());
+    }
+
+    private void commit() {
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.beforeCommit(false);
+        }
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    private Team team(Long id, Long sam, BigDecimal loadDays) {
+        Team t = new Team();
+        t.setId(id);
+        t.setSamTotalSum(sam);
+        t.setLoadDays(loadDays);
+        return t;
+    }
+}